@@ -0,0 +1,91 @@
+package org.delcom.app.benchmarks;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.entities.AuthToken;
+import org.delcom.app.entities.User;
+import org.delcom.app.interceptors.AuthInterceptor;
+import org.delcom.app.services.AuthPrincipalCache;
+import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.MetricsRegistry;
+import org.delcom.app.services.UserService;
+import org.delcom.app.utils.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+// AuthInterceptor.preHandle untuk request API ber-token, dengan service di-mock
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthInterceptorBenchmark {
+
+    private AuthInterceptor cachedInterceptor;
+    private AuthInterceptor uncachedInterceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        User user = new User("Benchmark", "benchmark@example.com", "hash");
+        user.setId(UUID.randomUUID());
+        String token = JwtUtil.generateToken(user.getId());
+
+        AuthTokenService authTokenService = mock(AuthTokenService.class);
+        when(authTokenService.findUserToken(any(UUID.class), anyString()))
+                .thenReturn(new AuthToken(user.getId(), token));
+        UserService userService = mock(UserService.class);
+        when(userService.getUserById(any(UUID.class))).thenReturn(user);
+
+        cachedInterceptor = interceptor(authTokenService, userService,
+                new AuthPrincipalCache(10000, Duration.ofMinutes(10), new MetricsRegistry()));
+        // TTL nol: setiap request melewati cache sehingga token dan user selalu di-lookup
+        uncachedInterceptor = interceptor(authTokenService, userService,
+                new AuthPrincipalCache(10000, Duration.ZERO, new MetricsRegistry()));
+
+        request = new MockHttpServletRequest("GET", "/api/foods");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    private static AuthInterceptor interceptor(AuthTokenService authTokenService, UserService userService,
+            AuthPrincipalCache authPrincipalCache) {
+        AuthInterceptor interceptor = new AuthInterceptor();
+        ReflectionTestUtils.setField(interceptor, "authContext", new AuthContext());
+        ReflectionTestUtils.setField(interceptor, "authTokenService", authTokenService);
+        ReflectionTestUtils.setField(interceptor, "userService", userService);
+        ReflectionTestUtils.setField(interceptor, "authPrincipalCache", authPrincipalCache);
+        return interceptor;
+    }
+
+    @Benchmark
+    public boolean preHandleCached() throws Exception {
+        return cachedInterceptor.preHandle(request, response, null);
+    }
+
+    @Benchmark
+    public boolean preHandleUncached() throws Exception {
+        return uncachedInterceptor.preHandle(request, response, null);
+    }
+}
@@ -0,0 +1,65 @@
+package org.delcom.app.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.configs.ApiResponse;
+import org.delcom.app.entities.Food;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import tools.jackson.databind.json.JsonMapper;
+
+// Serialisasi JSON ApiResponse<List<Food>> seperti response GET /api/foods
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    // Ukuran halaman: default dan maksimum FoodService
+    @Param({ "20", "100" })
+    public int size;
+
+    private JsonMapper jsonMapper;
+    private ApiResponse<List<Food>> response;
+
+    @Setup
+    public void setup() {
+        jsonMapper = JsonMapper.builder().build();
+
+        UUID userId = UUID.randomUUID();
+        List<Food> foods = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Food food = new Food(userId, "Nasi Goreng " + i, 350.0, 12.5, 45.0, 14.0, 2.5,
+                    "1 porsi", "Makanan Utama", "Nasi goreng dengan telur dan sayuran");
+            food.setId(UUID.randomUUID());
+            // Timestamp biasanya diisi @PrePersist
+            ReflectionTestUtils.setField(food, "createdAt", LocalDateTime.now());
+            ReflectionTestUtils.setField(food, "updatedAt", LocalDateTime.now());
+            foods.add(food);
+        }
+        response = new ApiResponse<>("success", "Berhasil mengambil data makanan", foods,
+                "MjAyNS0xMS0wNFQxMDowMDowMHwzZjFjMmE5ZS03ZDRiLTRlMmEtOWE1Ny0wYjFmM2M1ZDdlOTA");
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return jsonMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,69 @@
+package org.delcom.app.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.utils.JwtUtil;
+import org.delcom.app.utils.JwtVerification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+// Pembuatan dan verifikasi JWT, termasuk baseline verifikasi dua kali parse (validasi lalu ekstraksi
+// subject dengan parser baru tiap panggilan) sebagai pembanding JwtUtil.verify.
+// Dilaporkan sebagai operasi per detik pada satu thread (per core).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private UUID userId;
+    private String token;
+    private String tamperedToken;
+
+    @Setup
+    public void setup() {
+        userId = UUID.randomUUID();
+        token = JwtUtil.generateToken(userId);
+        tamperedToken = token.substring(0, token.length() - 2) + "xx";
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return JwtUtil.generateToken(userId);
+    }
+
+    @Benchmark
+    public JwtVerification verify() {
+        return JwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public JwtVerification verifyInvalidSignature() {
+        return JwtUtil.verify(tamperedToken);
+    }
+
+    // Alur lama: parser dibangun tiap panggilan, validasi lalu ekstraksi subject (dua kali parse)
+    @Benchmark
+    public UUID legacyValidateThenExtract() {
+        Jwts.parser().verifyWith(JwtUtil.getKey()).build().parseSignedClaims(token);
+        Claims claims = Jwts.parser().verifyWith(JwtUtil.getKey()).build()
+                .parseSignedClaims(token).getPayload();
+        return UUID.fromString(claims.getSubject());
+    }
+}
@@ -0,0 +1,66 @@
+package org.delcom.app.benchmarks;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.entities.NutritionRollup;
+import org.delcom.app.repositories.FoodRepository;
+import org.delcom.app.services.FileStorageService;
+import org.delcom.app.services.FoodService;
+import org.delcom.app.services.NutritionRollupService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Pemetaan rollup ke hasil FoodService.getNutritionStatistics (repository di-mock)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NutritionStatisticsBenchmark {
+
+    // Jumlah kategori milik user
+    @Param({ "5", "50" })
+    public int categories;
+
+    private FoodService foodService;
+    private UUID userId;
+
+    @Setup
+    public void setup() {
+        userId = UUID.randomUUID();
+        List<NutritionRollup> rollups = new ArrayList<>();
+        for (int i = 0; i < categories; i++) {
+            rollups.add(new NutritionRollup(userId, "Kategori " + i, 10 + i,
+                    2500.0 + i, 120.0, 300.0, 80.0, 40.0));
+        }
+
+        NutritionRollupService nutritionRollupService = mock(NutritionRollupService.class);
+        when(nutritionRollupService.getRollups(any(UUID.class))).thenReturn(rollups);
+
+        foodService = new FoodService(mock(FoodRepository.class), mock(FileStorageService.class),
+                null, nutritionRollupService, null, null);
+    }
+
+    @Benchmark
+    public Map<String, Object> getNutritionStatistics() {
+        return foodService.getNutritionStatistics(userId);
+    }
+}
@@ -0,0 +1,118 @@
+package org.delcom.app.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.configs.AccessLogWriter;
+import org.delcom.app.configs.RequestLoggingFilter;
+import org.delcom.app.services.MetricsRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+/**
+ * Biaya RequestLoggingFilter per request (di luar handler). Log ditulis ke file
+ * sementara agar output JMH tetap bersih; baseline mengulang format lama
+ * (stacktrace + String.format) tanpa menulis ke stdout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RequestLoggingFilterBenchmark {
+
+    private Path logDir;
+    private AccessLogWriter accessLogWriter;
+    private RequestLoggingFilter filter;
+    private final FilterChain chain = (req, res) -> ((MockHttpServletResponse) res).setStatus(200);
+
+    @State(Scope.Thread)
+    public static class RequestState {
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+
+        @Setup
+        public void setup() {
+            request = new MockHttpServletRequest("GET", "/api/foods/3f1c2a9e-7d4b-4e2a-9a57-0b1f3c5d7e90");
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/foods/{id}");
+            request.setRemoteAddr("127.0.0.1");
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        logDir = Files.createTempDirectory("access-log-bench");
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+        accessLogWriter = new AccessLogWriter(8192, logDir.resolve("access.log").toString(),
+                DataSize.ofMegabytes(64), 1, metricsRegistry);
+        accessLogWriter.afterPropertiesSet();
+
+        filter = new RequestLoggingFilter(accessLogWriter, metricsRegistry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        accessLogWriter.destroy();
+        try (var files = Files.list(logDir)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(logDir);
+    }
+
+    @Benchmark
+    public void doFilter(RequestState state) throws ServletException, IOException {
+        filter.doFilter(state.request, state.response, chain);
+    }
+
+    // Alur lama: walk stacktrace dan String.format di thread request
+    @Benchmark
+    public String legacyStackWalkFormat(RequestState state) throws ServletException, IOException {
+        long start = System.currentTimeMillis();
+        chain.doFilter(state.request, state.response);
+        long duration = System.currentTimeMillis() - start;
+
+        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
+        StackTraceElement origin = Arrays.stream(stack)
+                .filter(s -> s.getClassName().startsWith("org.delcom"))
+                .findFirst()
+                .orElse(stack[stack.length - 1]);
+        String originInfo = origin.getClassName() + "." + origin.getMethodName() + ":" + origin.getLineNumber();
+
+        return String.format("%s%-6s %s %d %dms%s [%s] from %s",
+                "\u001B[32m",
+                state.request.getMethod(),
+                state.request.getRequestURI(),
+                state.response.getStatus(),
+                duration,
+                "\u001B[0m",
+                originInfo,
+                state.request.getRemoteAddr());
+    }
+}
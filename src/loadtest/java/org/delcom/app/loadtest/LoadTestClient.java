@@ -0,0 +1,115 @@
+package org.delcom.app.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP client tipis untuk load test. Cookie session dikelola manual per
+ * virtual user agar satu HttpClient bisa dipakai bersama oleh semua thread.
+ */
+public class LoadTestClient {
+    private static final Pattern CSRF_INPUT = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final String BOUNDARY = "----loadtest" + UUID.randomUUID().toString().replace("-", "");
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+
+    public LoadTestClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    // Membuka session baru lewat halaman login: simpan cookie session dan token CSRF
+    public int openSession(VirtualUser user) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(
+                request("/auth/login").GET().build(), HttpResponse.BodyHandlers.ofString());
+
+        String cookie = response.headers().firstValue("Set-Cookie")
+                .map(value -> value.substring(0, value.indexOf(';') > 0 ? value.indexOf(';') : value.length()))
+                .orElse(null);
+        Matcher matcher = CSRF_INPUT.matcher(response.body());
+        user.setSession(cookie, matcher.find() ? matcher.group(1) : null);
+        return response.statusCode();
+    }
+
+    public int login(VirtualUser user) throws IOException, InterruptedException {
+        String form = "email=" + URLEncoder.encode(user.getEmail(), StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(user.getPassword(), StandardCharsets.UTF_8)
+                + "&_csrf=" + URLEncoder.encode(user.getCsrfToken(), StandardCharsets.UTF_8);
+        HttpRequest.Builder builder = request("/auth/login/post")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form));
+        return send(withSession(builder, user));
+    }
+
+    public int get(VirtualUser user, String path) throws IOException, InterruptedException {
+        return send(request(path)
+                .header("Authorization", "Bearer " + user.getToken())
+                .GET());
+    }
+
+    public int postJson(VirtualUser user, String path, String json) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = request(path)
+                .header("Authorization", "Bearer " + user.getToken())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        return send(withSession(builder, user));
+    }
+
+    public int postFile(VirtualUser user, String path, String field, String filename, String contentType,
+            byte[] content) throws IOException, InterruptedException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(content.length + 256);
+        body.writeBytes(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + field + "\"; filename=\"" + filename + "\"\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(content);
+        body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest.Builder builder = request(path)
+                .header("Authorization", "Bearer " + user.getToken())
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+        return send(withSession(builder, user));
+    }
+
+    public int putBytes(VirtualUser user, String path, String contentType, byte[] content)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = request(path)
+                .header("Authorization", "Bearer " + user.getToken())
+                .header("Content-Type", contentType)
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(content));
+        return send(withSession(builder, user));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    // Request POST/PUT butuh cookie session dan header CSRF (CSRF Spring Security aktif)
+    private static HttpRequest.Builder withSession(HttpRequest.Builder builder, VirtualUser user) {
+        if (user.getSessionCookie() != null) {
+            builder.header("Cookie", user.getSessionCookie());
+        }
+        if (user.getCsrfToken() != null) {
+            builder.header("X-CSRF-TOKEN", user.getCsrfToken());
+        }
+        return builder;
+    }
+
+    private int send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,86 @@
+package org.delcom.app.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Opsi load test dari argumen {@code --nama=nilai}.
+ *
+ * @param users       jumlah user yang di-seed
+ * @param foods       jumlah food per user
+ * @param concurrency jumlah virtual user (virtual thread) per skenario
+ * @param warmup      durasi pemanasan per skenario (detik), tidak dihitung
+ * @param duration    durasi pengukuran per skenario (detik)
+ * @param scenarios   skenario yang dijalankan, berurutan
+ * @param threads     mode thread aplikasi yang dibandingkan; aplikasi dijalankan ulang per mode
+ * @param tomcatThreads jumlah worker Tomcat untuk mode platform
+ * @param replica     aktifkan routing read/write dengan pool replica terpisah
+ * @param out         file laporan JSON
+ */
+public record LoadTestOptions(int users, int foods, int concurrency, int warmup, int duration,
+                              List<Scenario> scenarios, List<Threads> threads, int tomcatThreads, boolean replica,
+                              String out) {
+
+    // Mode thread untuk request handling di aplikasi (bukan di sisi client)
+    public enum Threads {
+        PLATFORM,
+        VIRTUAL;
+
+        public static Threads fromName(String name) {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        int users = 20;
+        int foods = 50;
+        int concurrency = 50;
+        int warmup = 5;
+        int duration = 20;
+        List<Scenario> scenarios = List.of(Scenario.values());
+        List<Threads> threads = List.of(Threads.PLATFORM);
+        int tomcatThreads = 200;
+        boolean replica = false;
+        String out = "target/loadtest-result.json";
+
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Argumen tidak valid: " + arg + " (format --nama=nilai)");
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            switch (name) {
+                case "users" -> users = Integer.parseInt(value);
+                case "foods" -> foods = Integer.parseInt(value);
+                case "concurrency" -> concurrency = Integer.parseInt(value);
+                case "warmup" -> warmup = Integer.parseInt(value);
+                case "duration" -> duration = Integer.parseInt(value);
+                case "scenarios" -> {
+                    List<Scenario> selected = new ArrayList<>();
+                    for (String scenario : value.split(",")) {
+                        selected.add(Scenario.fromName(scenario.trim()));
+                    }
+                    scenarios = selected;
+                }
+                case "threads" -> {
+                    List<Threads> selected = new ArrayList<>();
+                    for (String mode : value.split(",")) {
+                        selected.add(Threads.fromName(mode.trim()));
+                    }
+                    threads = selected;
+                }
+                case "tomcat-threads" -> tomcatThreads = Integer.parseInt(value);
+                case "replica" -> replica = Boolean.parseBoolean(value);
+                case "out" -> out = value;
+                default -> throw new IllegalArgumentException("Opsi tidak dikenal: --" + name);
+            }
+        }
+        return new LoadTestOptions(users, foods, concurrency, warmup, duration, scenarios, threads, tomcatThreads,
+                replica, out);
+    }
+}
@@ -0,0 +1,371 @@
+package org.delcom.app.loadtest;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.imageio.ImageIO;
+import javax.sql.DataSource;
+
+import org.delcom.app.Application;
+import org.delcom.app.configs.ReplicaRoutingDataSource;
+import org.delcom.app.configs.VirtualThreadDiagnostics;
+import org.delcom.app.entities.AuthToken;
+import org.delcom.app.entities.Food;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.FoodService;
+import org.delcom.app.services.UserService;
+import org.delcom.app.utils.JwtUtil;
+import org.delcom.app.utils.LatencyHistogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Menjalankan aplikasi dengan H2 in-memory, melakukan seed user dan food, lalu
+ * menjalankan skenario secara berurutan dengan virtual thread (closed loop).
+ * Setiap skenario: pemanasan lalu pengukuran; hasil berupa throughput dan
+ * persentil latency per skenario, dicetak dan ditulis sebagai JSON.
+ *
+ * Dengan --threads=platform,virtual aplikasi dijalankan sekali per mode thread
+ * dan hasilnya dibandingkan per skenario.
+ */
+public class LoadTestRunner {
+    private static final String PASSWORD = "loadtest-password";
+    private static final List<String> FOOD_NAMES = List.of(
+            "Nasi Goreng Ayam", "Soto Ayam", "Sayur Asem", "Jus Jeruk", "Roti Bakar",
+            "Ayam Bakar", "Mie Goreng", "Nasi Uduk", "Jus Alpukat", "Gado-gado");
+
+    private record Account(String email, String token, List<UUID> foodIds) {
+    }
+
+    private record Result(LoadTestOptions.Threads threads, Scenario scenario, long requests, long failures,
+                          long errors, double throughput, LatencyHistogram.Snapshot latency, long pinnedEvents) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        int exitCode = 0;
+        List<Result> results = new ArrayList<>();
+        Map<LoadTestOptions.Threads, Map<String, Long>> pinnedSites = new LinkedHashMap<>();
+        try {
+            // Aplikasi dijalankan ulang per mode thread dengan database dan seed yang sama
+            for (LoadTestOptions.Threads threads : options.threads()) {
+                ConfigurableApplicationContext context = start(threads, options);
+                try {
+                    int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                    System.out.println("> Aplikasi (" + threads + ") berjalan di port " + port + ", seed "
+                            + options.users() + " user x " + options.foods() + " food");
+                    List<Account> accounts = seed(context, options);
+                    VirtualThreadDiagnostics diagnostics = context.getBean(VirtualThreadDiagnostics.class);
+
+                    LoadTestClient client = new LoadTestClient("http://localhost:" + port);
+                    byte[] cover = coverImage();
+
+                    for (Scenario scenario : options.scenarios()) {
+                        System.out.println("> " + threads + " " + scenario + ": pemanasan " + options.warmup()
+                                + "s, pengukuran " + options.duration() + "s, concurrency "
+                                + options.concurrency());
+                        run(client, threads, scenario, accounts, cover, options.concurrency(), options.warmup(),
+                                diagnostics);
+                        results.add(run(client, threads, scenario, accounts, cover, options.concurrency(),
+                                options.duration(), diagnostics));
+                    }
+                    if (diagnostics.isEnabled()) {
+                        pinnedSites.put(threads, diagnostics.getPinnedSites());
+                    }
+                    printRouting(context);
+                } finally {
+                    SpringApplication.exit(context);
+                }
+            }
+
+            printResults(results);
+            printComparison(results);
+            writeReport(Paths.get(options.out()), options, results, pinnedSites);
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
+
+    private static ConfigurableApplicationContext start(LoadTestOptions.Threads threads, LoadTestOptions options)
+            throws IOException, SQLException {
+        String name = threads.name().toLowerCase(Locale.ROOT);
+        Path uploadDir = Files.createTempDirectory("loadtest-uploads-" + name);
+        String url = "jdbc:h2:mem:loadtest_" + name + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        // Replica: database H2 terpisah, tabelnya di-link read-only ke primary setelah skema dibuat
+        String replicaUrl = options.replica()
+                ? "jdbc:h2:mem:loadtest_" + name + "_replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+                : "";
+        ConfigurableApplicationContext context = SpringApplication.run(Application.class,
+                "--server.port=0",
+                "--spring.datasource.url=" + url,
+                "--app.datasource.replica.url=" + replicaUrl,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                // Migrasi memakai sintaks PostgreSQL (index hash); skema H2 dibuat oleh Hibernate
+                "--spring.flyway.enabled=false",
+                "--app.schema.verify=false",
+                "--spring.jpa.show-sql=false",
+                "--spring.devtools.restart.enabled=false",
+                "--spring.devtools.livereload.enabled=false",
+                "--spring.thymeleaf.cache=true",
+                "--app.fragment-cache.enabled=true",
+                "--spring.threads.virtual.enabled=" + (threads == LoadTestOptions.Threads.VIRTUAL),
+                "--server.tomcat.threads.max=" + options.tomcatThreads(),
+                "--app.upload.dir=" + uploadDir,
+                "--app.access-log.enabled=false",
+                "--logging.level.root=WARN");
+        if (options.replica()) {
+            linkReplica(url, replicaUrl);
+        }
+        return context;
+    }
+
+    /**
+     * Membuat setiap tabel primary sebagai LINKED TABLE READONLY di database replica.
+     * Read lewat replica melihat data primary tanpa lag, sedangkan tulis yang
+     * salah diarahkan ke replica gagal (skenario cover/create menghitungnya sebagai gagal).
+     */
+    private static void linkReplica(String primaryUrl, String replicaUrl) throws SQLException {
+        try (Connection primary = DriverManager.getConnection(primaryUrl, "sa", "");
+                Connection replica = DriverManager.getConnection(replicaUrl, "sa", "");
+                Statement statement = replica.createStatement()) {
+            List<String> tables = new ArrayList<>();
+            try (ResultSet rows = primary.getMetaData().getTables(null, "public", "%", null)) {
+                while (rows.next()) {
+                    if (rows.getString("TABLE_TYPE").endsWith("TABLE")) {
+                        tables.add(rows.getString("TABLE_NAME"));
+                    }
+                }
+            }
+            for (String table : tables) {
+                statement.execute("CREATE LINKED TABLE " + table + "('org.h2.Driver', '" + primaryUrl
+                        + "', 'sa', '', 'public', '" + table + "') READONLY");
+            }
+        }
+    }
+
+    private static List<Account> seed(ConfigurableApplicationContext context, LoadTestOptions options) {
+        UserService userService = context.getBean(UserService.class);
+        FoodService foodService = context.getBean(FoodService.class);
+        AuthTokenService authTokenService = context.getBean(AuthTokenService.class);
+
+        List<Account> accounts = new ArrayList<>();
+        for (int u = 0; u < options.users(); u++) {
+            String email = "loadtest" + u + "@example.com";
+            User user = userService.createUser("Load Test " + u, email, PASSWORD);
+
+            List<UUID> foodIds = new ArrayList<>();
+            for (int f = 0; f < options.foods(); f++) {
+                Food food = foodService.createFood(user.getId(),
+                        FOOD_NAMES.get(f % FOOD_NAMES.size()) + " " + f,
+                        150.0 + f % 400, 5.0 + f % 20, 20.0 + f % 60, 3.0 + f % 15, 1.0 + f % 8,
+                        "1 porsi", Scenario.CATEGORIES.get(f % Scenario.CATEGORIES.size()),
+                        "Data seed load test");
+                foodIds.add(food.getId());
+            }
+
+            // Token API dibuat langsung (tidak ada endpoint login API)
+            String token = JwtUtil.generateToken(user.getId());
+            authTokenService.createAuthToken(new AuthToken(user.getId(), token));
+            accounts.add(new Account(email, token, foodIds));
+        }
+        return accounts;
+    }
+
+    private static Result run(LoadTestClient client, LoadTestOptions.Threads threads, Scenario scenario,
+            List<Account> accounts, byte[] cover, int concurrency, int seconds, VirtualThreadDiagnostics diagnostics)
+            throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long pinnedBefore = diagnostics.getPinnedEvents();
+        LongAdder failures = new LongAdder();
+        LongAdder errors = new LongAdder();
+
+        long begin = System.nanoTime();
+        long deadline = begin + TimeUnit.SECONDS.toNanos(seconds);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                Account account = accounts.get(i % accounts.size());
+                executor.submit(() -> {
+                    VirtualUser user = new VirtualUser(account.email(), PASSWORD, account.token(),
+                            account.foodIds());
+                    try {
+                        if (scenario.needsSession()) {
+                            client.openSession(user);
+                        }
+                        while (System.nanoTime() < deadline) {
+                            long start = System.nanoTime();
+                            try {
+                                int status = scenario.execute(client, user, cover);
+                                histogram.recordNanos(System.nanoTime() - start);
+                                if (!scenario.isSuccess(status)) {
+                                    failures.increment();
+                                }
+                            } catch (IOException e) {
+                                errors.increment();
+                            }
+                        }
+                    } catch (IOException e) {
+                        errors.increment();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                });
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - begin) / 1e9;
+
+        LatencyHistogram.Snapshot latency = histogram.snapshot();
+        return new Result(threads, scenario, latency.count(), failures.sum(), errors.sum(),
+                latency.count() / elapsedSeconds, latency, diagnostics.getPinnedEvents() - pinnedBefore);
+    }
+
+    private static void printResults(List<Result> results) {
+        System.out.println();
+        System.out.println(String.format(Locale.ROOT, "%-8s %-11s %9s %7s %9s %9s %9s %9s %9s %9s %7s",
+                "THREADS", "SKENARIO", "REQUEST", "GAGAL", "REQ/S", "P50(ms)", "P90(ms)", "P99(ms)", "P999(ms)",
+                "MAX(ms)", "PINNED"));
+        for (Result result : results) {
+            LatencyHistogram.Snapshot latency = result.latency();
+            System.out.println(String.format(Locale.ROOT,
+                    "%-8s %-11s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d",
+                    result.threads(), result.scenario(), result.requests(), result.failures() + result.errors(),
+                    result.throughput(), latency.p50Millis(), latency.p90Millis(), latency.p99Millis(),
+                    latency.p999Millis(), latency.maxMillis(), result.pinnedEvents()));
+        }
+        System.out.println();
+    }
+
+    // Jumlah koneksi yang diarahkan ke primary/replica (hanya jika --replica=true)
+    private static void printRouting(ConfigurableApplicationContext context) {
+        DataSource dataSource = context.getBean(DataSource.class);
+        if (dataSource instanceof DelegatingDataSource delegating
+                && delegating.getTargetDataSource() instanceof ReplicaRoutingDataSource routing) {
+            System.out.println("> Routing koneksi: primary " + routing.getPrimaryRoutes() + " (sticky "
+                    + routing.getStickyRoutes() + "), replica " + routing.getReplicaRoutes());
+        }
+    }
+
+    // Perbandingan virtual terhadap platform per skenario (hanya jika kedua mode dijalankan)
+    private static void printComparison(List<Result> results) {
+        Map<Scenario, Result> platform = new LinkedHashMap<>();
+        Map<Scenario, Result> virtual = new LinkedHashMap<>();
+        for (Result result : results) {
+            (result.threads() == LoadTestOptions.Threads.VIRTUAL ? virtual : platform)
+                    .put(result.scenario(), result);
+        }
+        if (platform.isEmpty() || virtual.isEmpty()) {
+            return;
+        }
+
+        System.out.println(String.format(Locale.ROOT, "%-11s %12s %12s %9s %14s %14s",
+                "SKENARIO", "REQ/S PLAT", "REQ/S VIRT", "RASIO", "P99 PLAT(ms)", "P99 VIRT(ms)"));
+        for (Map.Entry<Scenario, Result> entry : platform.entrySet()) {
+            Result virt = virtual.get(entry.getKey());
+            if (virt == null) {
+                continue;
+            }
+            Result plat = entry.getValue();
+            double ratio = plat.throughput() == 0 ? 0.0 : virt.throughput() / plat.throughput();
+            System.out.println(String.format(Locale.ROOT, "%-11s %12.1f %12.1f %8.2fx %14.2f %14.2f",
+                    entry.getKey(), plat.throughput(), virt.throughput(), ratio,
+                    plat.latency().p99Millis(), virt.latency().p99Millis()));
+        }
+        System.out.println();
+    }
+
+    private static void writeReport(Path out, LoadTestOptions options, List<Result> results,
+            Map<LoadTestOptions.Threads, Map<String, Long>> pinnedSites) throws IOException {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("users", options.users());
+        settings.put("foods", options.foods());
+        settings.put("concurrency", options.concurrency());
+        settings.put("warmupSeconds", options.warmup());
+        settings.put("durationSeconds", options.duration());
+        settings.put("tomcatThreads", options.tomcatThreads());
+        settings.put("replica", options.replica());
+        settings.put("javaVersion", Runtime.version().toString());
+
+        List<Map<String, Object>> scenarios = new ArrayList<>();
+        for (Result result : results) {
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("mean", result.latency().meanMillis());
+            latency.put("p50", result.latency().p50Millis());
+            latency.put("p90", result.latency().p90Millis());
+            latency.put("p99", result.latency().p99Millis());
+            latency.put("p999", result.latency().p999Millis());
+            latency.put("max", result.latency().maxMillis());
+
+            Map<String, Object> scenario = new LinkedHashMap<>();
+            scenario.put("threads", result.threads().name().toLowerCase(Locale.ROOT));
+            scenario.put("scenario", result.scenario().name().toLowerCase(Locale.ROOT));
+            scenario.put("requests", result.requests());
+            scenario.put("failures", result.failures());
+            scenario.put("errors", result.errors());
+            scenario.put("throughput", result.throughput());
+            scenario.put("latencyMs", latency);
+            scenario.put("pinnedEvents", result.pinnedEvents());
+            scenarios.add(scenario);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settings);
+        report.put("scenarios", scenarios);
+        Map<String, Object> pinned = new LinkedHashMap<>();
+        pinnedSites.forEach((threads, sites) -> pinned.put(threads.name().toLowerCase(Locale.ROOT), sites));
+        report.put("pinnedSites", pinned);
+
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        Files.writeString(out, JsonMapper.builder().build()
+                .writerWithDefaultPrettyPrinter().writeValueAsString(report));
+        System.out.println("> Laporan JSON: " + out.toAbsolutePath());
+    }
+
+    // Gambar PNG kecil untuk skenario upload cover
+    private static byte[] coverImage() throws IOException {
+        BufferedImage image = new BufferedImage(320, 240, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(new Color(0xF4A261));
+        graphics.fillRect(0, 0, 320, 240);
+        graphics.setColor(new Color(0x2A9D8F));
+        graphics.fillOval(60, 40, 200, 160);
+        graphics.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,108 @@
+package org.delcom.app.loadtest;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Skenario load test. Setiap eksekusi adalah satu iterasi virtual user dan
+ * mengembalikan status HTTP untuk menentukan sukses/gagal.
+ */
+public enum Scenario {
+    // Buka halaman login (session + CSRF baru) lalu submit form; sukses = redirect 302
+    LOGIN("POST") {
+        @Override
+        int execute(LoadTestClient client, VirtualUser user, byte[] cover) throws IOException, InterruptedException {
+            client.openSession(user);
+            return client.login(user);
+        }
+
+        @Override
+        boolean isSuccess(int status) {
+            return status == 302;
+        }
+
+        // Session dibuka ulang di setiap iterasi
+        @Override
+        boolean needsSession() {
+            return false;
+        }
+    },
+    LIST("GET") {
+        @Override
+        int execute(LoadTestClient client, VirtualUser user, byte[] cover) throws IOException, InterruptedException {
+            return client.get(user, "/api/foods?limit=20");
+        }
+    },
+    SEARCH("GET") {
+        @Override
+        int execute(LoadTestClient client, VirtualUser user, byte[] cover) throws IOException, InterruptedException {
+            String term = SEARCH_TERMS.get(ThreadLocalRandom.current().nextInt(SEARCH_TERMS.size()));
+            return client.get(user, "/api/foods?search=" + term);
+        }
+    },
+    CREATE("POST") {
+        @Override
+        int execute(LoadTestClient client, VirtualUser user, byte[] cover) throws IOException, InterruptedException {
+            int n = ThreadLocalRandom.current().nextInt(100_000);
+            String json = "{\"name\":\"Load Test " + n + "\",\"calories\":" + (100 + n % 500)
+                    + ",\"protein\":12.5,\"carbohydrates\":40,\"fat\":8,\"fiber\":3"
+                    + ",\"servingSize\":\"1 porsi\",\"category\":\"" + CATEGORIES.get(n % CATEGORIES.size())
+                    + "\",\"description\":\"Dibuat oleh load test\"}";
+            return client.postJson(user, "/api/foods", json);
+        }
+    },
+    COVER("POST") {
+        @Override
+        int execute(LoadTestClient client, VirtualUser user, byte[] cover) throws IOException, InterruptedException {
+            List<UUID> foodIds = user.getFoodIds();
+            UUID foodId = foodIds.get(ThreadLocalRandom.current().nextInt(foodIds.size()));
+            return client.postFile(user, "/api/foods/" + foodId + "/cover", "coverFile", "cover.png",
+                    "image/png", cover);
+        }
+    },
+    // Upload cover sebagai raw body (tanpa multipart)
+    COVER_STREAM("PUT") {
+        @Override
+        int execute(LoadTestClient client, VirtualUser user, byte[] cover) throws IOException, InterruptedException {
+            List<UUID> foodIds = user.getFoodIds();
+            UUID foodId = foodIds.get(ThreadLocalRandom.current().nextInt(foodIds.size()));
+            return client.putBytes(user, "/api/foods/" + foodId + "/cover", "image/png", cover);
+        }
+    },
+    STATISTICS("GET") {
+        @Override
+        int execute(LoadTestClient client, VirtualUser user, byte[] cover) throws IOException, InterruptedException {
+            return client.get(user, "/api/foods/statistics");
+        }
+    };
+
+    static final List<String> CATEGORIES = List.of("Makanan Utama", "Sarapan", "Minuman", "Camilan", "Buah");
+    static final List<String> SEARCH_TERMS = List.of("nasi", "ayam", "goreng", "sayur", "jus", "roti", "soto");
+
+    // Method HTTP request yang diukur
+    private final String method;
+
+    Scenario(String method) {
+        this.method = method;
+    }
+
+    abstract int execute(LoadTestClient client, VirtualUser user, byte[] cover)
+            throws IOException, InterruptedException;
+
+    boolean isSuccess(int status) {
+        return status >= 200 && status < 300;
+    }
+
+    // Skenario yang butuh session + CSRF sebelum iterasi pertama: semua selain GET,
+    // karena CSRF Spring Security aktif untuk request yang mengubah data
+    boolean needsSession() {
+        return !method.equals("GET");
+    }
+
+    public static Scenario fromName(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
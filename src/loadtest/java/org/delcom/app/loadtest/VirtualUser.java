@@ -0,0 +1,54 @@
+package org.delcom.app.loadtest;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Identitas hasil seed yang dipakai satu virtual user: token API, kredensial
+ * login, serta session dan token CSRF untuk request POST.
+ */
+public class VirtualUser {
+    private final String email;
+    private final String password;
+    private final String token;
+    private final List<UUID> foodIds;
+
+    private String sessionCookie;
+    private String csrfToken;
+
+    public VirtualUser(String email, String password, String token, List<UUID> foodIds) {
+        this.email = email;
+        this.password = password;
+        this.token = token;
+        this.foodIds = foodIds;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public List<UUID> getFoodIds() {
+        return foodIds;
+    }
+
+    public String getSessionCookie() {
+        return sessionCookie;
+    }
+
+    public String getCsrfToken() {
+        return csrfToken;
+    }
+
+    public void setSession(String sessionCookie, String csrfToken) {
+        this.sessionCookie = sessionCookie;
+        this.csrfToken = csrfToken;
+    }
+}
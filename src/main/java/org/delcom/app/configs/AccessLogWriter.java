@@ -0,0 +1,255 @@
+package org.delcom.app.configs;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.delcom.app.services.MetricsRegistry;
+import org.delcom.app.utils.RingBuffer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * Penulis access log asinkron. Request hanya memasukkan event ke ring buffer
+ * lock-free; satu thread latar belakang memformat dan menulis per batch ke
+ * stdout atau ke file dengan rotasi ukuran.
+ */
+@Component
+public class AccessLogWriter implements InitializingBean, DisposableBean {
+
+    private static final String RESET = "\u001B[0m";
+    private static final String GREEN = "\u001B[32m";
+    private static final String YELLOW = "\u001B[33m";
+    private static final String RED = "\u001B[31m";
+    private static final String CYAN = "\u001B[36m";
+
+    private static final int MAX_BATCH = 512;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    // Event dibuat di thread request; formatting dilakukan di thread writer
+    public record Event(long timestampMillis, String method, String uri, int status,
+                        long durationNanos, Object handler, String remoteAddr) {
+    }
+
+    private final RingBuffer<Event> buffer;
+    private final String file;
+    private final long maxFileSize;
+    private final int maxFiles;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder overheadNanos = new LongAdder();
+    private final LongAdder logged = new LongAdder();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    // State berikut hanya disentuh oleh thread writer
+    private final PrintStream console = System.out;
+    private FileChannel channel;
+    private long fileSize;
+
+    public AccessLogWriter(
+            @Value("${app.access-log.buffer-size:8192}") int bufferSize,
+            @Value("${app.access-log.file:}") String file,
+            @Value("${app.access-log.max-file-size:10MB}") DataSize maxFileSize,
+            @Value("${app.access-log.max-files:5}") int maxFiles,
+            MetricsRegistry metricsRegistry) {
+        this.buffer = new RingBuffer<>(bufferSize);
+        this.file = file;
+        this.maxFileSize = maxFileSize.toBytes();
+        this.maxFiles = maxFiles;
+
+        metricsRegistry.registerCounter("access_log_written", this::getWrittenCount);
+        metricsRegistry.registerCounter("access_log_dropped", this::getDroppedCount);
+        metricsRegistry.registerGauge("access_log_pending", this::getPendingCount);
+        metricsRegistry.registerGauge("access_log_overhead_avg_ns", this::getAverageOverheadNanos);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        running = true;
+        worker = new Thread(this::drainLoop, "access-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(worker);
+        worker.join(TimeUnit.SECONDS.toMillis(2));
+    }
+
+    /**
+     * Dipanggil dari thread request: tanpa lock dan tanpa formatting.
+     *
+     * @param sinceNanos waktu (System.nanoTime) saat request selesai diproses,
+     *                   untuk mengukur biaya logging per request
+     */
+    public void log(Event event, long sinceNanos) {
+        if (!buffer.offer(event)) {
+            dropped.increment();
+        }
+        overheadNanos.add(System.nanoTime() - sinceNanos);
+        logged.increment();
+    }
+
+    private void drainLoop() {
+        List<Event> batch = new ArrayList<>(MAX_BATCH);
+        StringBuilder text = new StringBuilder(MAX_BATCH * 128);
+
+        while (running || !buffer.isEmpty()) {
+            batch.clear();
+            if (buffer.drainTo(batch, MAX_BATCH) == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+
+            text.setLength(0);
+            for (Event event : batch) {
+                format(text, event);
+            }
+            write(text);
+            written.add(batch.size());
+        }
+        closeFile();
+    }
+
+    private void format(StringBuilder text, Event event) {
+        boolean toConsole = file.isEmpty();
+        if (toConsole) {
+            text.append(color(event.status()));
+        } else {
+            text.append(Instant.ofEpochMilli(event.timestampMillis())).append(' ');
+        }
+
+        text.append(event.method());
+        for (int i = event.method().length(); i < 6; i++) {
+            text.append(' ');
+        }
+        text.append(' ').append(event.uri())
+                .append(' ').append(event.status())
+                .append(' ').append(TimeUnit.NANOSECONDS.toMillis(event.durationNanos())).append("ms");
+        if (toConsole) {
+            text.append(RESET);
+        }
+
+        text.append(" [");
+        if (event.handler() instanceof HandlerMethod handlerMethod) {
+            text.append(handlerMethod.getBeanType().getName())
+                    .append('.').append(handlerMethod.getMethod().getName());
+        } else if (event.handler() != null) {
+            text.append(event.handler().getClass().getName());
+        } else {
+            text.append('-');
+        }
+        text.append("] from ").append(event.remoteAddr()).append('\n');
+    }
+
+    private static String color(int status) {
+        if (status >= 500) {
+            return RED;
+        } else if (status >= 400) {
+            return YELLOW;
+        } else if (status >= 200) {
+            return GREEN;
+        }
+        return CYAN;
+    }
+
+    private void write(StringBuilder text) {
+        if (file.isEmpty()) {
+            console.print(text);
+            console.flush();
+            return;
+        }
+
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            if (channel == null || fileSize + bytes.length > maxFileSize) {
+                rotate();
+            }
+            ByteBuffer data = ByteBuffer.wrap(bytes);
+            while (data.hasRemaining()) {
+                fileSize += channel.write(data);
+            }
+        } catch (IOException e) {
+            // Jangan sampai error log menghentikan writer; fallback ke stdout
+            console.print(text);
+            closeFile();
+        }
+    }
+
+    // Rotasi: access.log -> access.log.1 -> ... -> access.log.N (yang terlama dihapus)
+    private void rotate() throws IOException {
+        closeFile();
+        Path path = Paths.get(file);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        if (Files.exists(path) && Files.size(path) > 0 && maxFiles > 0) {
+            Files.deleteIfExists(Paths.get(file + "." + maxFiles));
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                Path source = Paths.get(file + "." + i);
+                if (Files.exists(source)) {
+                    Files.move(source, Paths.get(file + "." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(path, Paths.get(file + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        fileSize = channel.size();
+    }
+
+    private void closeFile() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // abaikan
+        }
+        channel = null;
+    }
+
+    // Metrics
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    // Rata-rata biaya logging di thread request (membuat event + offer)
+    public double getAverageOverheadNanos() {
+        long count = logged.sum();
+        return count == 0 ? 0.0 : overheadNanos.sum() / (double) count;
+    }
+}
@@ -7,11 +7,17 @@ public class ApiResponse<T> {
     private String status;
     private String message;
     private T data;
+    private String nextCursor;
 
     public ApiResponse(String status, String message, T data) {
+        this(status, message, data, null);
+    }
+
+    public ApiResponse(String status, String message, T data, String nextCursor) {
         this.status = status;
         this.message = message;
         this.data = data;
+        this.nextCursor = nextCursor;
     }
 
     // Getter & Setter
@@ -26,4 +32,8 @@ public class ApiResponse<T> {
     public T getData() {
         return data;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
 }
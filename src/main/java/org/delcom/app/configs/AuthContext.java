@@ -15,6 +15,8 @@ public class AuthContext {
 
     public void setAuthUser(User authUser) {
         this.authUser = authUser;
+        // Untuk read-your-writes saat read replica aktif
+        ReplicaRoutingDataSource.bindUser(authUser != null ? authUser.getId() : null);
     }
 
     public boolean isAuthenticated() {
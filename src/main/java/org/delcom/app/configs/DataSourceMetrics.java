@@ -0,0 +1,66 @@
+package org.delcom.app.configs;
+
+import java.sql.SQLException;
+import java.util.function.ToIntFunction;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.services.MetricsRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Metrics per pool koneksi (datasource_&lt;pool&gt;_*): koneksi aktif, idle, total,
+ * dan thread yang menunggu koneksi. Jika read replica aktif, ditambah jumlah
+ * routing ke primary/replica dan read yang dipaksa ke primary (sticky).
+ */
+@Component
+public class DataSourceMetrics {
+
+    public DataSourceMetrics(DataSource dataSource, MetricsRegistry metricsRegistry) {
+        ReplicaRoutingDataSource routing = dataSource instanceof DelegatingDataSource delegating
+                && delegating.getTargetDataSource() instanceof ReplicaRoutingDataSource target ? target : null;
+
+        if (routing == null) {
+            registerPool("primary", dataSource, metricsRegistry);
+            return;
+        }
+        registerPool("primary", routing.getPrimary(), metricsRegistry);
+        registerPool("replica", routing.getReplica(), metricsRegistry);
+        metricsRegistry.registerCounter("datasource_routed_primary", routing::getPrimaryRoutes);
+        metricsRegistry.registerCounter("datasource_routed_replica", routing::getReplicaRoutes);
+        metricsRegistry.registerCounter("datasource_routed_sticky", routing::getStickyRoutes);
+        metricsRegistry.registerGauge("datasource_sticky_users", routing::getStickyUsers);
+    }
+
+    private static void registerPool(String name, DataSource dataSource, MetricsRegistry metricsRegistry) {
+        HikariDataSource hikari = unwrapHikari(dataSource);
+        if (hikari == null) {
+            return;
+        }
+        String prefix = "datasource_" + name;
+        metricsRegistry.registerGauge(prefix + "_active", () -> value(hikari, HikariPoolMXBean::getActiveConnections));
+        metricsRegistry.registerGauge(prefix + "_idle", () -> value(hikari, HikariPoolMXBean::getIdleConnections));
+        metricsRegistry.registerGauge(prefix + "_total", () -> value(hikari, HikariPoolMXBean::getTotalConnections));
+        metricsRegistry.registerGauge(prefix + "_pending",
+                () -> value(hikari, HikariPoolMXBean::getThreadsAwaitingConnection));
+        metricsRegistry.registerGauge(prefix + "_max", hikari::getMaximumPoolSize);
+    }
+
+    // Pool Hikari baru dibuat saat koneksi pertama diminta; sebelum itu bernilai 0
+    private static int value(HikariDataSource hikari, ToIntFunction<HikariPoolMXBean> metric) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        return pool == null ? 0 : metric.applyAsInt(pool);
+    }
+
+    private static HikariDataSource unwrapHikari(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.delcom.app.configs;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Mengaktifkan routing read/write jika app.datasource.replica.url diisi.
+ * DataSource bawaan Spring Boot (spring.datasource.*) tetap menjadi primary;
+ * pool replica dibuat di sini lalu keduanya dibungkus ReplicaRoutingDataSource.
+ * Tanpa replica, DataSource tidak diubah sama sekali.
+ */
+@Configuration
+public class ReplicaDataSourceConfig {
+
+    // static: post processor dibuat sebelum bean lain tanpa menarik dependency config ini
+    @Bean
+    public static BeanPostProcessor replicaDataSourcePostProcessor(Environment env) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                String replicaUrl = env.getProperty("app.datasource.replica.url", "");
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primary) || replicaUrl.isBlank()) {
+                    return bean;
+                }
+
+                Duration stickyWindow = env.getProperty("app.datasource.replica.sticky-window", Duration.class,
+                        Duration.ofSeconds(5));
+                ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+                        createReplica(env, replicaUrl), stickyWindow);
+                System.out.println("Read replica aktif: transaksi read-only diarahkan ke " + replicaUrl);
+
+                // Koneksi fisik diambil saat statement pertama, setelah flag read-only transaksi terpasang
+                return new RoutingProxy(routing);
+            }
+        };
+    }
+
+    // close() dipanggil Spring saat shutdown (destroy method bean dataSource) untuk kedua pool
+    private static class RoutingProxy extends LazyConnectionDataSourceProxy implements AutoCloseable {
+        private final ReplicaRoutingDataSource routing;
+
+        private RoutingProxy(ReplicaRoutingDataSource routing) {
+            super(routing);
+            this.routing = routing;
+        }
+
+        @Override
+        public void close() throws Exception {
+            routing.close();
+        }
+    }
+
+    private static HikariDataSource createReplica(Environment env, String url) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("replica");
+        config.setJdbcUrl(url);
+        config.setUsername(env.getProperty("app.datasource.replica.username",
+                env.getProperty("spring.datasource.username", "")));
+        config.setPassword(env.getProperty("app.datasource.replica.password",
+                env.getProperty("spring.datasource.password", "")));
+        String driver = env.getProperty("spring.datasource.driver-class-name", "");
+        if (!driver.isBlank()) {
+            config.setDriverClassName(driver);
+        }
+        config.setMaximumPoolSize(env.getProperty("app.datasource.replica.maximum-pool-size", Integer.class, 10));
+        config.setReadOnly(true);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,34 @@
+package org.delcom.app.configs;
+
+import java.util.Map;
+
+import org.springframework.boot.EnvironmentPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Mematikan open-in-view jika read replica aktif. Dengan open-in-view,
+ * EntityManager (dan koneksi fisiknya) dipegang sepanjang request, sehingga
+ * transaksi tulis setelah read-only di request yang sama ikut memakai koneksi
+ * replica. Tanpanya setiap transaksi mengambil koneksi sendiri dan
+ * ReplicaRoutingDataSource memilih ulang tujuannya.
+ *
+ * Didaftarkan di META-INF/spring.factories; dijalankan setelah application.properties dimuat.
+ */
+public class ReplicaEnvironmentPostProcessor implements EnvironmentPostProcessor {
+    private static final String OPEN_IN_VIEW = "spring.jpa.open-in-view";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        String replicaUrl = environment.getProperty("app.datasource.replica.url", "");
+        if (replicaUrl.isBlank()) {
+            return;
+        }
+        if (environment.getProperty(OPEN_IN_VIEW, Boolean.class, true)) {
+            System.out.println("Read replica aktif: " + OPEN_IN_VIEW + " dipaksa false");
+        }
+        environment.getPropertySources().addFirst(new MapPropertySource("replicaRouting",
+                Map.of(OPEN_IN_VIEW, "false")));
+    }
+}
@@ -0,0 +1,145 @@
+package org.delcom.app.configs;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Mengarahkan transaksi @Transactional(readOnly = true) ke pool replica dan
+ * sisanya ke primary. Harus dibungkus LazyConnectionDataSourceProxy agar
+ * koneksi baru diambil setelah status read-only transaksi diketahui.
+ *
+ * Read-your-writes: setelah transaksi tulis milik seorang user commit, read
+ * user tersebut tetap ke primary selama stickyWindow (replica mungkin tertinggal).
+ * User diikat ke thread oleh AuthContext selama request.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    // Batas jumlah user di map sticky sebelum entri kedaluwarsa dibersihkan
+    private static final int MAX_STICKY_USERS = 10_000;
+
+    private static final ThreadLocal<UUID> currentUser = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long stickyWindowNanos;
+
+    // userId -> System.nanoTime() commit tulis terakhir
+    private final ConcurrentHashMap<UUID, Long> lastWrites = new ConcurrentHashMap<>();
+
+    private final LongAdder primaryRoutes = new LongAdder();
+    private final LongAdder replicaRoutes = new LongAdder();
+    private final LongAdder stickyRoutes = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration stickyWindow) {
+        this.primary = primary;
+        this.replica = replica;
+        this.stickyWindowNanos = stickyWindow.toNanos();
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    // Dipanggil saat user request diketahui; dilepas di akhir request (AuthInterceptor)
+    public static void bindUser(UUID userId) {
+        currentUser.set(userId);
+    }
+
+    public static void clearUser() {
+        currentUser.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        UUID userId = currentUser.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        markWrite(userId);
+                    }
+                });
+            }
+            primaryRoutes.increment();
+            return Route.PRIMARY;
+        }
+
+        if (userId != null && isSticky(userId)) {
+            stickyRoutes.increment();
+            primaryRoutes.increment();
+            return Route.PRIMARY;
+        }
+        replicaRoutes.increment();
+        return Route.REPLICA;
+    }
+
+    private boolean isSticky(UUID userId) {
+        Long lastWrite = lastWrites.get(userId);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite < stickyWindowNanos) {
+            return true;
+        }
+        lastWrites.remove(userId, lastWrite);
+        return false;
+    }
+
+    private void markWrite(UUID userId) {
+        long now = System.nanoTime();
+        lastWrites.put(userId, now);
+        if (lastWrites.size() > MAX_STICKY_USERS) {
+            lastWrites.values().removeIf(lastWrite -> now - lastWrite >= stickyWindowNanos);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        } finally {
+            if (primary instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public DataSource getReplica() {
+        return replica;
+    }
+
+    public long getPrimaryRoutes() {
+        return primaryRoutes.sum();
+    }
+
+    public long getReplicaRoutes() {
+        return replicaRoutes.sum();
+    }
+
+    public long getStickyRoutes() {
+        return stickyRoutes.sum();
+    }
+
+    public int getStickyUsers() {
+        return lastWrites.size();
+    }
+}
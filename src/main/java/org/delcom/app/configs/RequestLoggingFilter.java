@@ -4,21 +4,19 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.delcom.app.services.MetricsRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
-import java.util.Arrays;
 
 @Component
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
-    private static final String RESET = "\u001B[0m";
-    private static final String GREEN = "\u001B[32m";
-    private static final String YELLOW = "\u001B[33m";
-    private static final String RED = "\u001B[31m";
-    private static final String CYAN = "\u001B[36m";
+    private final AccessLogWriter accessLogWriter;
+    private final MetricsRegistry metricsRegistry;
 
     @Value("${server.port:8080}")
     private int port;
@@ -26,51 +24,50 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
     @Value("${spring.devtools.livereload.enabled:false}")
     private boolean livereload;
 
+    @Value("${app.access-log.enabled:true}")
+    private boolean enabled;
+
+    public RequestLoggingFilter(AccessLogWriter accessLogWriter, MetricsRegistry metricsRegistry) {
+        this.accessLogWriter = accessLogWriter;
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    // Asset statis tidak dicatat di access log maupun metrics latency
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/assets/");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
             HttpServletResponse response,
             FilterChain filterChain)
             throws ServletException, IOException {
 
-        long start = System.currentTimeMillis();
-        filterChain.doFilter(request, response);
-        long duration = System.currentTimeMillis() - start;
-
-        int status = response.getStatus();
-        String color;
-        if (status >= 500) {
-            color = RED;
-        } else if (status >= 400) {
-            color = YELLOW;
-        } else if (status >= 200) {
-            color = GREEN;
-        } else {
-            color = CYAN;
-        }
-
-        // Ambil asal kode dari stacktrace
-        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
-        StackTraceElement origin = Arrays.stream(stack)
-                .filter(s -> s.getClassName().startsWith("org.delcom"))
-                .findFirst()
-                .orElse(stack[stack.length - 1]);
-        String originInfo = origin.getClassName() + "." + origin.getMethodName() + ":" + origin.getLineNumber();
-
-        String remoteAddr = request.getRemoteAddr();
+        String uri = request.getRequestURI();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long end = System.nanoTime();
 
-        String log = String.format(
-                "%s%-6s %s %d %dms%s [%s] from %s",
-                color,
-                request.getMethod(),
-                request.getRequestURI(),
-                status,
-                duration,
-                RESET,
-                originInfo,
-                remoteAddr);
+            // Latency dicatat per route template agar path variable tidak memecah histogram
+            String routePattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            metricsRegistry.recordRequest(request.getMethod(), routePattern, response.getStatus(), end - start);
 
-        if (!request.getRequestURI().startsWith("/.well-known")) {
-            System.out.println(log);
+            if (enabled && !uri.startsWith("/.well-known")) {
+                // Asal kode diambil dari handler yang dipilih DispatcherServlet, bukan stacktrace;
+                // formatting dan penulisan dikerjakan oleh thread AccessLogWriter
+                Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+                accessLogWriter.log(new AccessLogWriter.Event(
+                        System.currentTimeMillis(),
+                        request.getMethod(),
+                        uri,
+                        response.getStatus(),
+                        end - start,
+                        handler,
+                        request.getRemoteAddr()), end);
+            }
         }
     }
 }
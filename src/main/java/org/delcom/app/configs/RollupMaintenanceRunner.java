@@ -0,0 +1,75 @@
+package org.delcom.app.configs;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.repositories.UserRepository;
+import org.delcom.app.services.NutritionRollupService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Perintah pemeliharaan nutrition rollup, dijalankan lewat argumen aplikasi:
+ * --rollups=verify (laporan drift), --rollups=repair (bangun ulang yang drift),
+ * --rollups=rebuild (bangun ulang semua user). Aplikasi berhenti setelah selesai.
+ */
+@Component
+public class RollupMaintenanceRunner implements ApplicationRunner {
+
+    private final UserRepository userRepository;
+    private final NutritionRollupService nutritionRollupService;
+    private final ApplicationContext applicationContext;
+
+    public RollupMaintenanceRunner(UserRepository userRepository,
+            NutritionRollupService nutritionRollupService,
+            ApplicationContext applicationContext) {
+        this.userRepository = userRepository;
+        this.nutritionRollupService = nutritionRollupService;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> values = args.getOptionValues("rollups");
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+
+        String mode = values.get(0);
+        if (!mode.equals("verify") && !mode.equals("repair") && !mode.equals("rebuild")) {
+            System.out.println("Mode rollups tidak dikenal: " + mode + " (verify|repair|rebuild)");
+            exit(2);
+            return;
+        }
+
+        int users = 0;
+        int drifted = 0;
+        for (UUID userId : userRepository.findAllIds()) {
+            users++;
+            if (mode.equals("rebuild")) {
+                nutritionRollupService.rebuild(userId);
+                continue;
+            }
+
+            List<String> categories = nutritionRollupService.verify(userId);
+            if (categories.isEmpty()) {
+                continue;
+            }
+            drifted++;
+            System.out.println("> Drift user " + userId + ": " + categories);
+            if (mode.equals("repair")) {
+                nutritionRollupService.rebuild(userId);
+            }
+        }
+
+        System.out.println("Rollups " + mode + " selesai: " + users + " user, " + drifted + " drift");
+        exit(mode.equals("verify") && drifted > 0 ? 1 : 0);
+    }
+
+    private void exit(int code) {
+        System.exit(SpringApplication.exit(applicationContext, () -> code));
+    }
+}
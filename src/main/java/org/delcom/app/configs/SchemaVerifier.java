@@ -0,0 +1,86 @@
+package org.delcom.app.configs;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mengecek index yang dibuat oleh migrasi (db/migration) benar-benar ada di
+ * database. Kolom dan tabel sudah dicek oleh Hibernate (ddl-auto=validate),
+ * tetapi index tidak; tanpa index query utama kembali menjadi full scan.
+ * Startup gagal jika ada yang hilang.
+ */
+@Component
+public class SchemaVerifier implements SmartInitializingSingleton {
+    // Index wajib per tabel, harus sama dengan migrasi terakhir
+    private static final Map<String, List<String>> REQUIRED_INDEXES = Map.of(
+            "users", List.of("uk_users_email"),
+            "foods", List.of("idx_foods_user_created", "idx_foods_user_category", "idx_foods_cover"),
+            "auth_tokens", List.of("uk_auth_tokens_token_hash", "idx_auth_tokens_user_id",
+                    "idx_auth_tokens_expires_at"),
+            "nutrition_rollups", List.of("uk_nutrition_rollups_user_category"));
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+
+    public SchemaVerifier(DataSource dataSource, @Value("${app.schema.verify:true}") boolean enabled) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+    }
+
+    // Dijalankan setelah semua singleton (termasuk migrasi Flyway dan JPA) siap
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Map.Entry<String, List<String>> table : REQUIRED_INDEXES.entrySet()) {
+                Set<String> found = indexNames(metaData, connection, table.getKey());
+                for (String index : table.getValue()) {
+                    if (!found.contains(index)) {
+                        missing.add(table.getKey() + "." + index);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Gagal membaca metadata skema database", e);
+        }
+
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Skema database tidak sesuai migrasi, index tidak ditemukan: "
+                    + missing + ". Jalankan migrasi Flyway (spring.flyway.enabled=true).");
+        }
+    }
+
+    private static Set<String> indexNames(DatabaseMetaData metaData, Connection connection, String table)
+            throws SQLException {
+        Set<String> names = new HashSet<>();
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table,
+                false, true)) {
+            while (indexes.next()) {
+                String name = indexes.getString("INDEX_NAME");
+                if (name != null) {
+                    names.add(name.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,54 @@
+package org.delcom.app.configs;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import org.delcom.app.services.MetricsRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Metrics per region second-level cache Hibernate (hit, miss, put, hit ratio).
+ * Angka hanya terisi jika hibernate.generate_statistics=true; nama region
+ * harus sama dengan @Cache di entity, @QueryHints di repository, dan ehcache.xml.
+ */
+@Component
+public class SecondLevelCacheMetrics {
+    private static final List<String> REGIONS = List.of("users", "foods", "food-lists");
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory, MetricsRegistry metricsRegistry) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (String region : REGIONS) {
+            String prefix = "l2_cache_" + region.replace('-', '_');
+            metricsRegistry.registerCounter(prefix + "_hits", () -> count(region, CacheRegionStatistics::getHitCount));
+            metricsRegistry.registerCounter(prefix + "_misses",
+                    () -> count(region, CacheRegionStatistics::getMissCount));
+            metricsRegistry.registerCounter(prefix + "_puts", () -> count(region, CacheRegionStatistics::getPutCount));
+            metricsRegistry.registerGauge(prefix + "_hit_ratio", () -> hitRatio(region));
+        }
+        metricsRegistry.registerCounter("l2_cache_update_timestamps_puts",
+                statistics::getUpdateTimestampsCachePutCount);
+    }
+
+    // Statistik region dibuat Hibernate saat region pertama kali dipakai; null sebelum itu
+    private long count(String region, ToLongFunction<CacheRegionStatistics> value) {
+        if (!statistics.isStatisticsEnabled()) {
+            return 0;
+        }
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics == null ? 0 : value.applyAsLong(regionStatistics);
+    }
+
+    private double hitRatio(String region) {
+        long hits = count(region, CacheRegionStatistics::getHitCount);
+        long total = hits + count(region, CacheRegionStatistics::getMissCount);
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -4,8 +4,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
@@ -44,8 +43,11 @@ public class SecurityConfig {
                 return http.build();
         }
 
+        // Asset statis tidak melewati filter chain sama sekali (tanpa session, CSRF, security context)
         @Bean
-        public PasswordEncoder passwordEncoder() {
-                return new BCryptPasswordEncoder();
+        WebSecurityCustomizer staticAssetsCustomizer() {
+                return web -> web.ignoring().requestMatchers("/assets/**");
         }
+
+        // PasswordEncoder disediakan oleh PasswordHashingService (BCrypt di thread pool terbatas)
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.services.AuthPrincipalCache;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpSessionEvent;
+import jakarta.servlet.http.HttpSessionListener;
+
+// Membuang principal yang di-cache saat session berakhir (logout atau timeout)
+@Component
+public class SessionPrincipalListener implements HttpSessionListener {
+
+    private final AuthPrincipalCache authPrincipalCache;
+
+    public SessionPrincipalListener(AuthPrincipalCache authPrincipalCache) {
+        this.authPrincipalCache = authPrincipalCache;
+    }
+
+    @Override
+    public void sessionDestroyed(HttpSessionEvent event) {
+        authPrincipalCache.evict(AuthPrincipalCache.sessionKey(event.getSession().getId()));
+    }
+}
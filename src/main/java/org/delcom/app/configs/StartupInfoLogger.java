@@ -24,6 +24,8 @@ public class StartupInfoLogger implements ApplicationListener<ApplicationReadyEv
         boolean liveReloadEnabled = env.getProperty("spring.devtools.livereload.enabled", Boolean.class, false);
         String liveReloadPort = env.getProperty("spring.devtools.livereload.port", "35729");
 
+        boolean virtualThreads = env.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+
         // Ambil host (default localhost)
         String host = env.getProperty("server.address", "localhost");
 
@@ -40,6 +42,7 @@ public class StartupInfoLogger implements ApplicationListener<ApplicationReadyEv
                 liveReloadEnabled
                         ? (YELLOW + "> LiveReload: ENABLED (port " + liveReloadPort + ")" + RESET)
                         : (YELLOW + "> LiveReload: DISABLED" + RESET));
+        System.out.println(CYAN + "> Threads: " + (virtualThreads ? "VIRTUAL" : "PLATFORM") + RESET);
         System.out.println();
     }
 }
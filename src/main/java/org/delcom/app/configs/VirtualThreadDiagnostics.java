@@ -0,0 +1,130 @@
+package org.delcom.app.configs;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.delcom.app.services.MetricsRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Diagnostik pinning saat request dijalankan di virtual thread
+ * (spring.threads.virtual.enabled=true). Event JFR jdk.VirtualThreadPinned
+ * dibaca in-process: setiap lokasi (frame pertama di kode aplikasi) dicatat
+ * sekali di log, lalu dihitung sebagai metrics.
+ *
+ * Sejak JDK 24 monitor synchronized tidak lagi mem-pin carrier thread; yang
+ * tersisa terutama frame native dan inisialisasi class.
+ */
+@Component
+public class VirtualThreadDiagnostics implements InitializingBean, DisposableBean {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APP_PACKAGE = "org.delcom.app.";
+    // Batas jumlah lokasi yang dilacak agar map tidak tumbuh tanpa batas
+    private static final int MAX_SITES = 100;
+
+    private final boolean enabled;
+    private final Duration threshold;
+
+    private RecordingStream stream;
+
+    private final ConcurrentHashMap<String, LongAdder> sites = new ConcurrentHashMap<>();
+    private final LongAdder pinnedEvents = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+
+    public VirtualThreadDiagnostics(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${app.virtual-threads.pinned-events.enabled:true}") boolean enabled,
+            @Value("${app.virtual-threads.pinned-events.threshold:20ms}") Duration threshold,
+            MetricsRegistry metricsRegistry) {
+        this.enabled = virtualThreads && enabled;
+        this.threshold = threshold;
+
+        metricsRegistry.registerCounter("virtual_thread_pinned_events", pinnedEvents::sum);
+        metricsRegistry.registerCounter("virtual_thread_pinned_ms", () -> pinnedNanos.sum() / 1_000_000);
+        metricsRegistry.registerGauge("virtual_thread_pinned_sites", sites::size);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+    }
+
+    @Override
+    public void destroy() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void record(RecordedEvent event) {
+        pinnedEvents.increment();
+        pinnedNanos.add(event.getDuration().toNanos());
+
+        String site = site(event.getStackTrace());
+        LongAdder count = sites.get(site);
+        if (count == null) {
+            if (sites.size() >= MAX_SITES) {
+                return;
+            }
+            LongAdder created = new LongAdder();
+            count = sites.putIfAbsent(site, created);
+            if (count == null) {
+                count = created;
+                System.out.println("Virtual thread pinned " + event.getDuration().toMillis() + " ms di " + site);
+            }
+        }
+        count.increment();
+    }
+
+    // Frame pertama di kode aplikasi; jika tidak ada, frame teratas
+    private static String site(RecordedStackTrace stackTrace) {
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        if (frames.isEmpty()) {
+            return "(tanpa stack trace)";
+        }
+        for (RecordedFrame frame : frames) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(APP_PACKAGE)) {
+                return format(frame);
+            }
+        }
+        return format(frames.get(0));
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getPinnedEvents() {
+        return pinnedEvents.sum();
+    }
+
+    // Jumlah event per lokasi, untuk laporan load test
+    public Map<String, Long> getPinnedSites() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        sites.forEach((site, count) -> snapshot.put(site, count.sum()));
+        return snapshot;
+    }
+}
@@ -1,19 +1,27 @@
 package org.delcom.app.configs;
 
+import org.delcom.app.interceptors.AssetCacheInterceptor;
 import org.delcom.app.interceptors.AuthInterceptor;
 // HAPUS import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
 
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
 
     private final AuthInterceptor authInterceptor; // Deklarasi final
+    private final AssetCacheInterceptor assetCacheInterceptor;
 
     // PERBAIKAN: Gunakan Constructor Injection
-    public WebMvcConfig(AuthInterceptor authInterceptor) {
+    public WebMvcConfig(AuthInterceptor authInterceptor, AssetCacheInterceptor assetCacheInterceptor) {
         this.authInterceptor = authInterceptor;
+        this.assetCacheInterceptor = assetCacheInterceptor;
     }
 
     @Override
@@ -26,5 +34,27 @@ public class WebMvcConfig implements WebMvcConfigurer {
                         "/api/auth/**",
                         "/error" 
                 );
+        registry.addInterceptor(assetCacheInterceptor)
+                .addPathPatterns("/assets/**");
+    }
+
+    /**
+     * Asset statis: URL berisi hash isi file (app.min-&lt;md5&gt;.css); variant .br/.gz
+     * hasil build dipilih dari Accept-Encoding. Cache-Control tidak diatur di sini
+     * tetapi oleh AssetCacheInterceptor, karena hanya URL berhash yang boleh immutable.
+     */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/assets/**")
+                .addResourceLocations("classpath:/static/assets/")
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    // Menulis ulang URL @{/assets/...} di template Thymeleaf ke URL berversi
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
     }
 }
\ No newline at end of file
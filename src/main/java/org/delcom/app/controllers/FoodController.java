@@ -1,8 +1,7 @@
 package org.delcom.app.controllers;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -10,15 +9,22 @@ import java.util.UUID;
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
 import org.delcom.app.dto.CoverFoodForm;
+import org.delcom.app.dto.FoodCursor;
+import org.delcom.app.dto.FoodPage;
 import org.delcom.app.entities.Food;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.CoverMemoryCache;
+import org.delcom.app.services.CoverProcessingService;
+import org.delcom.app.services.CoverResizeBusyException;
+import org.delcom.app.services.CoverResizeService;
+import org.delcom.app.services.CoverVariant;
 import org.delcom.app.services.FileStorageService;
 import org.delcom.app.services.FoodService;
+import org.delcom.app.services.InvalidCoverException;
+import org.delcom.app.services.NutritionRollupService;
+import org.delcom.app.utils.FileResponseUtil;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -31,18 +37,33 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 @RestController
 @RequestMapping("/api/foods")
 public class FoodController {
     private final FoodService foodService;
     private final FileStorageService fileStorageService;
+    private final NutritionRollupService nutritionRollupService;
+    private final CoverProcessingService coverProcessingService;
+    private final CoverResizeService coverResizeService;
+    private final CoverMemoryCache coverMemoryCache;
 
     @Autowired
     protected AuthContext authContext;
 
-    public FoodController(FoodService foodService, FileStorageService fileStorageService) {
+    public FoodController(FoodService foodService, FileStorageService fileStorageService,
+                          NutritionRollupService nutritionRollupService,
+                          CoverProcessingService coverProcessingService,
+                          CoverResizeService coverResizeService,
+                          CoverMemoryCache coverMemoryCache) {
         this.foodService = foodService;
         this.fileStorageService = fileStorageService;
+        this.nutritionRollupService = nutritionRollupService;
+        this.coverProcessingService = coverProcessingService;
+        this.coverResizeService = coverResizeService;
+        this.coverMemoryCache = coverMemoryCache;
     }
 
     // Menambahkan food baru
@@ -111,13 +132,15 @@ public class FoodController {
         ));
     }
 
-    // Mendapatkan semua food dengan opsi pencarian
+    // Mendapatkan food per halaman (keyset) dengan opsi pencarian
     // -------------------------------
     @GetMapping
     public ResponseEntity<ApiResponse<Map<String, List<Food>>>> getAllFoods(
             @RequestParam(required = false) String search,
-            @RequestParam(required = false) String category) {
-        
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after) {
+
         // Validasi autentikasi
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403).body(
@@ -125,17 +148,39 @@ public class FoodController {
         }
         User authUser = authContext.getAuthUser();
 
-        List<Food> foods;
-        if (category != null && !category.trim().isEmpty()) {
-            foods = foodService.getFoodsByCategory(authUser.getId(), category);
-        } else {
-            foods = foodService.getAllFoods(authUser.getId(), search);
+        if (limit != null && limit <= 0) {
+            return ResponseEntity.badRequest().body(
+                new ApiResponse<>("fail", "Data limit tidak valid", null));
+        }
+
+        FoodCursor cursor = FoodCursor.decode(after);
+        if (after != null && !after.isBlank() && cursor == null) {
+            return ResponseEntity.badRequest().body(
+                new ApiResponse<>("fail", "Data cursor tidak valid", null));
+        }
+
+        boolean byCategory = category != null && !category.trim().isEmpty();
+        if (!byCategory && search != null && !search.trim().isEmpty()) {
+            // Hasil pencarian diurutkan berdasarkan relevansi, tanpa cursor
+            List<Food> foods = foodService.getAllFoods(authUser.getId(), search);
+            int size = limit == null ? FoodService.DEFAULT_PAGE_SIZE : Math.min(limit, FoodService.MAX_PAGE_SIZE);
+            if (foods.size() > size) {
+                foods = foods.subList(0, size);
+            }
+            return ResponseEntity.ok(new ApiResponse<>(
+                "success",
+                "Daftar food berhasil diambil",
+                Map.of("foods", foods)
+            ));
         }
 
+        FoodPage page = foodService.getFoodsPage(authUser.getId(), category, cursor, limit);
+
         return ResponseEntity.ok(new ApiResponse<>(
             "success",
             "Daftar food berhasil diambil",
-            Map.of("foods", foods)
+            Map.of("foods", page.getFoods()),
+            page.getNextCursor()
         ));
     }
 
@@ -159,6 +204,29 @@ public class FoodController {
         ));
     }
     
+    // Membangun ulang rollup statistik nutrisi milik user (perbaikan drift)
+    // -------------------------------
+    @PostMapping("/statistics/rebuild")
+    public ResponseEntity<ApiResponse<Map<String, List<String>>>> rebuildNutritionStatistics() {
+        // Validasi autentikasi
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(
+                new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        List<String> drifted = nutritionRollupService.verify(authUser.getId());
+        if (!drifted.isEmpty()) {
+            nutritionRollupService.rebuild(authUser.getId());
+        }
+
+        return ResponseEntity.ok(new ApiResponse<>(
+            "success",
+            "Statistik nutrisi berhasil diverifikasi",
+            Map.of("repairedCategories", drifted)
+        ));
+    }
+
     // Mendapatkan food berdasarkan ID
     // -------------------------------
     @GetMapping("/{id}")
@@ -312,49 +380,161 @@ public class FoodController {
         }
 
         try {
-            // Simpan file
-            String filename = fileStorageService.storeFile(
-                coverFoodForm.getCoverFile(), id);
+            // Format dari magic bytes, hash dan ukuran dihitung dalam satu kali baca
+            return saveCover(authUser, id, fileStorageService.storeFile(coverFoodForm.getCoverFile()));
+        } catch (InvalidCoverException e) {
+            return ResponseEntity.status(e.isTooLarge() ? 413 : 400).body(
+                new ApiResponse<>("fail", e.getMessage(), null));
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body(
+                new ApiResponse<>("fail", "Gagal mengupload cover: " + e.getMessage(), null));
+        }
+    }
 
-            // Update database
-            foodService.updateCover(authUser.getId(), id, filename);
+    // Upload/Update Food Cover sebagai raw body (PUT, Content-Type image/*).
+    // Body ditulis langsung dari socket ke file tujuan tanpa spool multipart.
+    // -------------------------------
+    @PutMapping("/{id}/cover")
+    public ResponseEntity<ApiResponse<Map<String, String>>> putFoodCover(
+            @PathVariable UUID id,
+            HttpServletRequest request) {
 
-            return ResponseEntity.ok(new ApiResponse<>(
-                "success",
-                "Cover food berhasil diupload",
-                Map.of("cover", filename)
-            ));
+        // Validasi autentikasi
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(
+                new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        // Tolak lebih awal jika Content-Length sudah melebihi batas
+        if (request.getContentLengthLong() > FileStorageService.MAX_COVER_SIZE) {
+            return ResponseEntity.status(413).body(
+                new ApiResponse<>("fail", "Ukuran image terlalu besar. Maksimal 5MB", null));
+        }
+
+        // Cek apakah food exists
+        Food food = foodService.getFoodById(authUser.getId(), id);
+        if (food == null) {
+            return ResponseEntity.status(404).body(
+                new ApiResponse<>("fail", "Data food tidak ditemukan", null));
+        }
+
+        try {
+            FileStorageService.StoredCover stored = fileStorageService.storeStream(
+                request.getInputStream(), FileStorageService.MAX_COVER_SIZE);
+            return saveCover(authUser, id, stored);
+        } catch (InvalidCoverException e) {
+            return ResponseEntity.status(e.isTooLarge() ? 413 : 400).body(
+                new ApiResponse<>("fail", e.getMessage(), null));
         } catch (IOException e) {
             return ResponseEntity.status(500).body(
                 new ApiResponse<>("fail", "Gagal mengupload cover: " + e.getMessage(), null));
         }
     }
 
-    // Get Food Cover/Image
+    private ResponseEntity<ApiResponse<Map<String, String>>> saveCover(User authUser, UUID id,
+            FileStorageService.StoredCover stored) {
+        // Update database; setelah commit file boleh dihapus lagi jika reference-nya dilepas
+        try {
+            foodService.updateCover(authUser.getId(), id, stored.filename());
+        } finally {
+            fileStorageService.releasePending(stored.filename());
+        }
+
+        // Variant thumb/card/full dibuat di background
+        CoverProcessingService.Job job = coverProcessingService.enqueue(stored.filename());
+
+        return ResponseEntity.ok(new ApiResponse<>(
+            "success",
+            "Cover food berhasil diupload",
+            Map.of("cover", stored.filename(), "status", job.status().name())
+        ));
+    }
+
+    // Status pemrosesan cover food
     // -------------------------------
+    @GetMapping("/{id}/cover/status")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getFoodCoverStatus(@PathVariable UUID id) {
+        // Validasi autentikasi
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(
+                new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        Food food = foodService.getFoodById(authUser.getId(), id);
+        if (food == null) {
+            return ResponseEntity.status(404).body(
+                new ApiResponse<>("fail", "Data food tidak ditemukan", null));
+        }
+        if (food.getCover() == null) {
+            return ResponseEntity.badRequest().body(
+                new ApiResponse<>("fail", "Food tidak memiliki cover", null));
+        }
+
+        CoverProcessingService.Job job = coverProcessingService.getStatus(food.getCover());
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("cover", food.getCover());
+        data.put("status", job != null ? job.status().name() : "UNPROCESSED");
+        if (job != null && job.error() != null) {
+            data.put("error", job.error());
+        }
+
+        return ResponseEntity.ok(new ApiResponse<>(
+            "success",
+            "Status cover berhasil diambil",
+            data
+        ));
+    }
+
+    // Get Food Cover/Image, ?variant=thumb|card|full (fallback ke original jika belum diproses)
+    // -------------------------------
+    // ?w=&h=&fit=contain|cover: resize on-demand ke ukuran baku terdekat (dibulatkan ke atas),
+    // disimpan di cache disk LRU; 503 jika slot resize penuh
     @GetMapping("/covers/{filename:.+}")
-    public ResponseEntity<Resource> getFoodCover(@PathVariable String filename) {
-        try {
-            Path filePath = fileStorageService.loadFile(filename);
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (resource.exists() || resource.isReadable()) {
-                String contentType = Files.probeContentType(filePath);
-                if (contentType == null) {
-                    contentType = "application/octet-stream";
-                }
-
-                return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, 
-                           "inline; filename=\"" + resource.getFilename() + "\"")
-                    .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
+    public void getFoodCover(@PathVariable String filename,
+            @RequestParam(required = false) String variant,
+            @RequestParam(required = false) Integer w,
+            @RequestParam(required = false) Integer h,
+            @RequestParam(required = false) String fit,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        FileStorageService.CoverFile cover;
+        if (w != null || h != null) {
+            CoverResizeService.Fit resizeFit = CoverResizeService.Fit.fromKey(fit);
+            if (resizeFit == null || !isValidDimension(w) || !isValidDimension(h)) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+                return;
+            }
+            try {
+                cover = coverResizeService.resize(filename, w, h, resizeFit);
+            } catch (IOException e) {
+                // Format yang tidak bisa di-decode (mis. WebP) dilayani dari original
+                cover = fileStorageService.resolveCover(filename, null);
+            } catch (CoverResizeBusyException e) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                return;
             }
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
+        } else {
+            // Cover kecil yang sering diminta dilayani dari memori
+            CoverVariant coverVariant = CoverVariant.fromKey(variant);
+            CoverMemoryCache.Entry cached = coverMemoryCache.get(filename, coverVariant);
+            if (cached != null) {
+                FileResponseUtil.write(request, response, cached.content(), cached.lastModified(),
+                        cached.contentType(), cached.cacheControl());
+                return;
+            }
+            cover = fileStorageService.resolveCover(filename, coverVariant);
+        }
+        if (cover == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
+        FileResponseUtil.write(request, response, cover.path(), cover.contentType(), cover.cacheControl());
+    }
+
+    private static boolean isValidDimension(Integer value) {
+        return value == null || (value > 0 && value <= CoverResizeService.MAX_DIMENSION);
     }
 
     // Delete Food Cover
@@ -379,10 +559,7 @@ public class FoodController {
                 new ApiResponse<>("fail", "Food tidak memiliki cover", null));
         }
 
-        // Hapus file
-        fileStorageService.deleteFile(food.getCover());
-
-        // Update database
+        // Update database; file dihapus oleh service jika tidak dipakai food lain
         foodService.updateCover(authUser.getId(), id, null);
 
         return ResponseEntity.ok(new ApiResponse<>(
@@ -0,0 +1,137 @@
+package org.delcom.app.controllers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.delcom.app.configs.ApiResponse;
+import org.delcom.app.services.MetricsRegistry;
+import org.delcom.app.utils.LatencyHistogram;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Endpoint metrics; autentikasi ditangani AuthInterceptor seperti endpoint /api lainnya
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8");
+
+    private final MetricsRegistry metricsRegistry;
+
+    public MetricsController(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    // Metrics dalam format JSON
+    // -------------------------------
+    @GetMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getMetrics() {
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        for (Map.Entry<MetricsRegistry.Route, MetricsRegistry.RouteMetrics> entry : metricsRegistry.getRoutes().entrySet()) {
+            LatencyHistogram.Snapshot snapshot = entry.getValue().snapshot();
+
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("mean", snapshot.meanMillis());
+            latency.put("p50", snapshot.p50Millis());
+            latency.put("p90", snapshot.p90Millis());
+            latency.put("p99", snapshot.p99Millis());
+            latency.put("p999", snapshot.p999Millis());
+            latency.put("max", snapshot.maxMillis());
+
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("method", entry.getKey().method());
+            endpoint.put("route", entry.getKey().uri());
+            endpoint.put("count", snapshot.count());
+            endpoint.put("status", entry.getValue().statusCounts());
+            endpoint.put("latencyMs", latency);
+            endpoints.add(endpoint);
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("endpoints", endpoints);
+        data.put("gauges", metricsRegistry.getGauges());
+        data.put("counters", metricsRegistry.getCounters());
+        return ResponseEntity.ok(new ApiResponse<>("success", "Berhasil mengambil metrics", data));
+    }
+
+    // Metrics dalam format teks Prometheus
+    // URL: /api/metrics?format=prometheus
+    // -------------------------------
+    @GetMapping(params = "format=prometheus")
+    public ResponseEntity<String> getPrometheusMetrics() {
+        StringBuilder text = new StringBuilder(4096);
+
+        Map<MetricsRegistry.Route, MetricsRegistry.RouteMetrics> routes = metricsRegistry.getRoutes();
+        Map<MetricsRegistry.Route, LatencyHistogram.Snapshot> snapshots = new LinkedHashMap<>();
+        for (Map.Entry<MetricsRegistry.Route, MetricsRegistry.RouteMetrics> entry : routes.entrySet()) {
+            snapshots.put(entry.getKey(), entry.getValue().snapshot());
+        }
+
+        text.append("# HELP http_server_request_duration_seconds Latency request per route template.\n");
+        text.append("# TYPE http_server_request_duration_seconds summary\n");
+        for (Map.Entry<MetricsRegistry.Route, LatencyHistogram.Snapshot> entry : snapshots.entrySet()) {
+            String labels = labels(entry.getKey());
+            LatencyHistogram.Snapshot snapshot = entry.getValue();
+            appendQuantile(text, labels, "0.5", snapshot.p50Millis());
+            appendQuantile(text, labels, "0.9", snapshot.p90Millis());
+            appendQuantile(text, labels, "0.99", snapshot.p99Millis());
+            appendQuantile(text, labels, "0.999", snapshot.p999Millis());
+            text.append("http_server_request_duration_seconds_sum{").append(labels).append("} ")
+                    .append(format(snapshot.sumSeconds())).append('\n');
+            text.append("http_server_request_duration_seconds_count{").append(labels).append("} ")
+                    .append(snapshot.count()).append('\n');
+        }
+
+        text.append("# HELP http_server_responses_total Jumlah response per route template dan kelas status.\n");
+        text.append("# TYPE http_server_responses_total counter\n");
+        for (Map.Entry<MetricsRegistry.Route, MetricsRegistry.RouteMetrics> entry : routes.entrySet()) {
+            String labels = labels(entry.getKey());
+            for (Map.Entry<String, Long> status : entry.getValue().statusCounts().entrySet()) {
+                text.append("http_server_responses_total{").append(labels)
+                        .append(",status=\"").append(status.getKey()).append("\"} ")
+                        .append(status.getValue()).append('\n');
+            }
+        }
+
+        for (Map.Entry<String, Number> gauge : metricsRegistry.getGauges().entrySet()) {
+            text.append("# TYPE app_").append(gauge.getKey()).append(" gauge\n");
+            text.append("app_").append(gauge.getKey()).append(' ')
+                    .append(format(gauge.getValue().doubleValue())).append('\n');
+        }
+
+        for (Map.Entry<String, Number> counter : metricsRegistry.getCounters().entrySet()) {
+            text.append("# TYPE app_").append(counter.getKey()).append("_total counter\n");
+            text.append("app_").append(counter.getKey()).append("_total ")
+                    .append(format(counter.getValue().doubleValue())).append('\n');
+        }
+
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(text.toString());
+    }
+
+    private static void appendQuantile(StringBuilder text, String labels, String quantile, double millis) {
+        text.append("http_server_request_duration_seconds{").append(labels)
+                .append(",quantile=\"").append(quantile).append("\"} ")
+                .append(format(millis / 1000.0)).append('\n');
+    }
+
+    private static String labels(MetricsRegistry.Route route) {
+        return "method=\"" + escape(route.method()) + "\",route=\"" + escape(route.uri()) + "\"";
+    }
+
+    // Escape nilai label sesuai format teks Prometheus
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.6f", value);
+    }
+}
@@ -2,29 +2,33 @@ package org.delcom.app.controllers;
 
 import org.delcom.app.configs.AuthContext;
 import org.delcom.app.dto.FoodForm;
-import org.delcom.app.entities.Food;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.FoodService;
+import org.delcom.app.services.FragmentCache;
 import org.delcom.app.utils.ConstUtil;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 @Controller 
 public class PageController {
 
+private static final int HOME_RECENT_FOODS = 8;
+
 private final FoodService foodService;
 private final AuthContext authContext;
+private final FragmentCache fragmentCache;
 
-public PageController(FoodService foodService, AuthContext authContext) {
+public PageController(FoodService foodService, AuthContext authContext, FragmentCache fragmentCache) {
 this.foodService = foodService;
 this.authContext = authContext;
+this.fragmentCache = fragmentCache;
 }
 
 @GetMapping("/")
@@ -33,7 +37,7 @@ return "redirect:/home";
 }
 
 @GetMapping("/home")
-public String home(Model model, HttpServletRequest request) {
+public String home(Model model, HttpServletRequest request, HttpServletResponse response) {
 
 // Validasi autentikasi
 if (!authContext.isAuthenticated()) {
@@ -53,14 +57,18 @@ model.addAttribute("auth", user);
 // PENTING: Kirim currentPath untuk navbar active state
 model.addAttribute("currentPath", request.getRequestURI());
 
-// Ambil semua foods
-List<Food> foods = foodService.getAllFoods(userId, "");
-model.addAttribute("foods", foods);
-
 // Force empty statistics untuk test
 Map<String, Object> statistics = createEmptyStatistics();
 model.addAttribute("statistics", statistics);
 
+// Kartu ringkasan dan 8 food terbaru dari FragmentCache (query hanya saat data user berubah)
+model.addAttribute("homePanelsHtml", fragmentCache.render(userId, "home", ConstUtil.TEMPLATE_PAGES_HOME,
+ConstUtil.FRAGMENT_HOME_PANELS, request, response, variables -> {
+variables.put("foods", foodService.getFoodsPage(userId, null, null, HOME_RECENT_FOODS).getFoods());
+variables.put("foodCount", foodService.countFoods(userId));
+variables.put("statistics", statistics);
+}));
+
 // Food Form untuk modal add
 model.addAttribute("foodForm", new FoodForm());
 
@@ -7,11 +7,12 @@ import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.PasswordHashingBusyException;
+import org.delcom.app.services.PasswordHashingService;
 import org.delcom.app.services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Controller; 
 import org.springframework.web.bind.annotation.*;
 
@@ -20,13 +21,16 @@ import org.springframework.web.bind.annotation.*;
 public class UserController { 
     private final UserService userService;
     private final AuthTokenService authTokenService;
+    private final PasswordHashingService passwordHashingService;
 
     @Autowired
     protected AuthContext authContext;
 
-    public UserController(UserService userService, AuthTokenService authTokenService) {
+    public UserController(UserService userService, AuthTokenService authTokenService,
+            PasswordHashingService passwordHashingService) {
         this.userService = userService;
         this.authTokenService = authTokenService;
+        this.passwordHashingService = passwordHashingService;
     }
 
     // Melakukan registrasi pengguna (API)
@@ -50,13 +54,17 @@ public class UserController {
                             null));
         }
 
-        String hashPassword = new BCryptPasswordEncoder().encode(reqUser.getPassword());
-
-        // CATATAN: UserService#createUser HARUS diubah agar menerima hashPassword
-        User createdUser = userService.createUser(
-                reqUser.getName(),
-                reqUser.getEmail(),
-                hashPassword);
+        // Password di-hash sekali oleh UserService di thread pool hashing
+        User createdUser;
+        try {
+            createdUser = userService.createUser(
+                    reqUser.getName(),
+                    reqUser.getEmail(),
+                    reqUser.getPassword());
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ApiResponse<>("fail", e.getMessage(), null));
+        }
 
         return ResponseEntity.ok().body(new ApiResponse<>(
                 "success",
@@ -139,17 +147,20 @@ public class UserController {
                     .body(new ApiResponse<>("fail", "Password lama dan baru wajib diisi", null));
         }
 
-        // Validasi password lama
-        boolean isPasswordMatch = new BCryptPasswordEncoder()
-                .matches(oldPassword, authUser.getPassword());
-        if (!isPasswordMatch) {
-            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Konfirmasi password tidak cocok", null));
+        User updatedUser;
+        try {
+            // Validasi password lama
+            boolean isPasswordMatch = passwordHashingService.matches(oldPassword, authUser.getPassword());
+            if (!isPasswordMatch) {
+                return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Konfirmasi password tidak cocok", null));
+            }
+
+            // Update password baru (di-hash oleh UserService)
+            updatedUser = userService.updatePassword(authUser.getId(), newPassword);
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ApiResponse<>("fail", e.getMessage(), null));
         }
-
-        // Update password baru
-        String hashPassword = new BCryptPasswordEncoder().encode(newPassword);
-        // CATATAN: UserService#updatePassword HARUS diubah agar menerima hashPassword
-        User updatedUser = userService.updatePassword(authUser.getId(), hashPassword);
         if (updatedUser == null) {
             ApiResponse<Void> response = new ApiResponse<>("fail", "User tidak ditemukan", null);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
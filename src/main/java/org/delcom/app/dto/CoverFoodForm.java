@@ -73,13 +73,12 @@ public class CoverFoodForm {
         return isSizeValid(5 * 1024 * 1024); // 5MB
     }
 
+    // Format image tidak dicek dari Content-Type client; isi file divalidasi
+    // dari magic bytes saat disimpan (FileStorageService.storeFile)
     public String getValidationError() {
         if (isEmpty()) {
             return "Cover file tidak boleh kosong";
         }
-        if (!isValidImage()) {
-            return "Format image tidak valid. Hanya menerima JPEG, PNG, GIF, atau WebP";
-        }
         if (!isSizeValid()) {
             return "Ukuran image terlalu besar. Maksimal 5MB";
         }
@@ -0,0 +1,57 @@
+package org.delcom.app.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.delcom.app.entities.Food;
+
+// Cursor keyset untuk daftar food, berurutan (createdAt DESC, id DESC)
+public class FoodCursor {
+
+    private final LocalDateTime createdAt;
+    private final UUID id;
+
+    public FoodCursor(LocalDateTime createdAt, UUID id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static FoodCursor of(Food food) {
+        return new FoodCursor(food.getCreatedAt(), food.getId());
+    }
+
+    // Mengembalikan null jika cursor tidak valid
+    public static FoodCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                return null;
+            }
+            return new FoodCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Getters
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
@@ -0,0 +1,29 @@
+package org.delcom.app.dto;
+
+import java.util.List;
+
+import org.delcom.app.entities.Food;
+
+public class FoodPage {
+
+    private final List<Food> foods;
+    private final String nextCursor;
+
+    public FoodPage(List<Food> foods, String nextCursor) {
+        this.foods = foods;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters
+    public List<Food> getFoods() {
+        return foods;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
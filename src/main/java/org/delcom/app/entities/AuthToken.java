@@ -3,21 +3,26 @@ package org.delcom.app.entities;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.delcom.app.utils.JwtUtil;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import jakarta.persistence.*;
 
 @Entity
 @Table(name = "auth_tokens")
-@JsonPropertyOrder({ "id", "token", "userId", "createdAt" })
+@JsonPropertyOrder({ "id", "userId", "createdAt", "expiresAt" })
 public class AuthToken {
     @Id
     @GeneratedValue(generator = "UUID")
     @Column(name = "id", updatable = false, nullable = false, columnDefinition = "uuid")
     private UUID id;
 
-    @Column(name = "token", nullable = false, columnDefinition = "TEXT")
-    private String token;
+    // SHA-256 dari token (lihat JwtUtil.hashToken); token mentah tidak disimpan
+    @JsonIgnore
+    @Column(name = "token_hash", nullable = false, updatable = false, length = 32)
+    private byte[] tokenHash;
 
     @Column(name = "user_id", nullable = false)
     private UUID userId;
@@ -25,13 +30,17 @@ public class AuthToken {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private LocalDateTime expiresAt;
+
     public AuthToken() {
     }
 
     public AuthToken(UUID userId, String token) {
         this.userId = userId;
-        this.token = token;
+        this.tokenHash = JwtUtil.hashToken(token);
         this.createdAt = LocalDateTime.now();
+        this.expiresAt = createdAt.plus(JwtUtil.getExpiration());
     }
 
     public UUID getId() {
@@ -42,12 +51,8 @@ public class AuthToken {
         this.id = id;
     }
 
-    public String getToken() {
-        return token;
-    }
-
-    public void setToken(String token) {
-        this.token = token;
+    public byte[] getTokenHash() {
+        return tokenHash;
     }
 
     public UUID getUserId() {
@@ -62,9 +67,20 @@ public class AuthToken {
         return createdAt;
     }
 
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
     // ======= @PrePersist & @PreUpdate =======
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        if (expiresAt == null) {
+            expiresAt = createdAt.plus(JwtUtil.getExpiration());
+        }
     }
 }
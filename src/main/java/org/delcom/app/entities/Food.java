@@ -2,11 +2,16 @@ package org.delcom.app.entities;
 
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "foods")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "foods")
 public class Food {
 
     @Id
@@ -0,0 +1,110 @@
+package org.delcom.app.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "nutrition_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_nutrition_rollups_user_category", columnNames = { "user_id", "category" })
+})
+public class NutritionRollup {
+
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @Column(name = "id", updatable = false, nullable = false, columnDefinition = "uuid")
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "category", nullable = false)
+    private String category;
+
+    @Column(name = "food_count", nullable = false)
+    private long foodCount;
+
+    @Column(name = "total_calories", nullable = false)
+    private double totalCalories;
+
+    @Column(name = "total_protein", nullable = false)
+    private double totalProtein;
+
+    @Column(name = "total_carbohydrates", nullable = false)
+    private double totalCarbohydrates;
+
+    @Column(name = "total_fat", nullable = false)
+    private double totalFat;
+
+    @Column(name = "total_fiber", nullable = false)
+    private double totalFiber;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructor
+    public NutritionRollup() {
+    }
+
+    public NutritionRollup(UUID userId, String category, long foodCount, double totalCalories,
+                           double totalProtein, double totalCarbohydrates, double totalFat,
+                           double totalFiber) {
+        this.userId = userId;
+        this.category = category;
+        this.foodCount = foodCount;
+        this.totalCalories = totalCalories;
+        this.totalProtein = totalProtein;
+        this.totalCarbohydrates = totalCarbohydrates;
+        this.totalFat = totalFat;
+        this.totalFiber = totalFiber;
+    }
+
+    // Getter
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public long getFoodCount() {
+        return foodCount;
+    }
+
+    public double getTotalCalories() {
+        return totalCalories;
+    }
+
+    public double getTotalProtein() {
+        return totalProtein;
+    }
+
+    public double getTotalCarbohydrates() {
+        return totalCarbohydrates;
+    }
+
+    public double getTotalFat() {
+        return totalFat;
+    }
+
+    public double getTotalFiber() {
+        return totalFiber;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    // ======= @PrePersist & @PreUpdate =======
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,55 @@
+package org.delcom.app.interceptors;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Cache-Control untuk /assets/**. Header immutable hanya dikirim jika URL berisi
+ * hash yang sama dengan isi file saat ini (app.min-&lt;md5&gt;.css); URL tanpa hash
+ * (mis. favicon, link lama) dan hash yang sudah tidak berlaku mendapat no-cache
+ * sehingga browser selalu revalidasi lewat Last-Modified.
+ */
+@Component
+public class AssetCacheInterceptor implements HandlerInterceptor {
+    private static final String IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable()
+            .getHeaderValue();
+    private static final String REVALIDATE = CacheControl.noCache().getHeaderValue();
+
+    // Hash dari VersionResourceResolver (content strategy) tepat sebelum ekstensi
+    private static final Pattern VERSION = Pattern.compile("-[0-9a-f]{32}(?=\\.[^./]*$)");
+
+    // Diambil saat request: ResourceUrlProvider dibuat setelah WebMvcConfig mendaftarkan
+    // interceptor ini (proxy @Lazy tidak bisa dipakai, getForLookupPath bersifat final)
+    private final ObjectProvider<ResourceUrlProvider> resourceUrlProvider;
+
+    public AssetCacheInterceptor(ObjectProvider<ResourceUrlProvider> resourceUrlProvider) {
+        this.resourceUrlProvider = resourceUrlProvider;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, isFingerprinted(path) ? IMMUTABLE : REVALIDATE);
+        return true;
+    }
+
+    private boolean isFingerprinted(String path) {
+        String unversioned = VERSION.matcher(path).replaceFirst("");
+        if (unversioned.equals(path)) {
+            return false;
+        }
+        // Hash dicocokkan dengan URL yang sekarang ditulis template, bukan hanya bentuknya:
+        // hash lama (mis. saat rolling deploy) tidak boleh di-cache selamanya
+        return path.equals(resourceUrlProvider.getObject().getForLookupPath(unversioned));
+    }
+}
@@ -1,11 +1,14 @@
 package org.delcom.app.interceptors;
 
 import org.delcom.app.configs.AuthContext;
+import org.delcom.app.configs.ReplicaRoutingDataSource;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.AuthPrincipalCache;
 import org.delcom.app.services.AuthTokenService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.JwtUtil;
+import org.delcom.app.utils.JwtVerification;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication; 
@@ -15,6 +18,7 @@ import org.springframework.web.servlet.HandlerInterceptor;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
 
 import java.util.UUID;
 
@@ -30,9 +34,14 @@ public class AuthInterceptor implements HandlerInterceptor {
     @Autowired
     protected UserService userService;
 
+    @Autowired
+    protected AuthPrincipalCache authPrincipalCache;
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
             throws Exception {
+        // Thread bisa dipakai ulang antar request (pool platform thread)
+        ReplicaRoutingDataSource.clearUser();
         String path = request.getRequestURI();
 
         // 1. SKIP AUTH UNTUK ENDPOINT PUBLIC DAN ASSET
@@ -48,10 +57,25 @@ public class AuthInterceptor implements HandlerInterceptor {
             Object principal = auth.getPrincipal();
             
             if (principal instanceof String email) {
+                // Identitas user di-cache per session agar navigasi tidak query users
+                HttpSession session = request.getSession(false);
+                String cacheKey = session != null ? AuthPrincipalCache.sessionKey(session.getId()) : null;
+                if (cacheKey != null) {
+                    User cachedUser = authPrincipalCache.get(cacheKey);
+                    if (cachedUser != null && email.equals(cachedUser.getEmail())) {
+                        authContext.setAuthUser(cachedUser);
+                        return true;
+                    }
+                }
+                long cacheGeneration = authPrincipalCache.generation();
+
                 User authUser = userService.getUserByEmail(email); 
                 
                 if (authUser != null) {
-                    // Berhasil: Set user dan Lanjut
+                    // Berhasil: Simpan ke cache, set user dan Lanjut
+                    if (cacheKey != null) {
+                        authPrincipalCache.put(cacheKey, authUser, cacheGeneration);
+                    }
                     authContext.setAuthUser(authUser);
                     return true; 
                 }
@@ -65,16 +89,29 @@ public class AuthInterceptor implements HandlerInterceptor {
     
             if (token != null && !token.isEmpty()) {
                 
-                if (!JwtUtil.validateToken(token, true)) {
+                // Verifikasi JWT cukup sekali: signature, subject, dan expiry
+                JwtVerification verification = JwtUtil.verify(token);
+                if (verification.failure() == JwtVerification.Failure.INVALID_SUBJECT) {
+                    sendErrorResponse(response, 401, "Format token autentikasi tidak valid");
+                    return false;
+                }
+                if (!verification.isAuthentic()) {
                     sendErrorResponse(response, 401, "Token autentikasi tidak valid");
                     return false;
                 }
-        
-                UUID userId = JwtUtil.extractUserId(token);
-                if (userId == null) {
-                    sendErrorResponse(response, 401, "Format token autentikasi tidak valid");
+                if (verification.expired()) {
+                    sendErrorResponse(response, 401, "Token autentikasi sudah expired");
                     return false;
                 }
+
+                // Cache hit: tidak perlu query token maupun user ke database
+                User cachedUser = authPrincipalCache.get(token);
+                if (cachedUser != null) {
+                    authContext.setAuthUser(cachedUser);
+                    return true;
+                }
+                long cacheGeneration = authPrincipalCache.generation();
+                UUID userId = verification.userId();
         
                 AuthToken authToken = authTokenService.findUserToken(userId, token);
                 if (authToken == null) {
@@ -88,7 +125,8 @@ public class AuthInterceptor implements HandlerInterceptor {
                     return false;
                 }
     
-                // Berhasil: Set user dan Lanjut
+                // Berhasil: Simpan ke cache, set user dan Lanjut
+                authPrincipalCache.put(token, authUser, cacheGeneration);
                 authContext.setAuthUser(authUser);
                 return true; 
             } else {
@@ -102,6 +140,12 @@ public class AuthInterceptor implements HandlerInterceptor {
         return true; 
     }
 
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        ReplicaRoutingDataSource.clearUser();
+    }
+
     private String extractToken(String rawAuthToken) {
         if (rawAuthToken != null && rawAuthToken.startsWith("Bearer ")) {
             return rawAuthToken.substring(7);
@@ -1,8 +1,12 @@
 package org.delcom.app.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import org.delcom.app.entities.AuthToken;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -11,11 +15,21 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface AuthTokenRepository extends JpaRepository<AuthToken, UUID> {
-    @Query("SELECT at FROM AuthToken at WHERE at.userId = ?1 AND at.token = ?2")
-    AuthToken findUserToken(UUID userId, String token);
+    // Lookup lewat index unik token_hash; user_id hanya sebagai pengaman tambahan
+    @Query("SELECT at FROM AuthToken at WHERE at.tokenHash = ?2 AND at.userId = ?1 AND at.expiresAt > ?3")
+    AuthToken findUserToken(UUID userId, byte[] tokenHash, LocalDateTime now);
 
     @Modifying
     @Transactional
     @Query("DELETE FROM AuthToken at WHERE at.userId = ?1")
     void deleteByUserId(UUID userId);
+
+    // Satu batch id token kedaluwarsa (index idx_auth_tokens_expires_at)
+    @Query("SELECT at.id FROM AuthToken at WHERE at.expiresAt <= ?1 ORDER BY at.expiresAt")
+    List<UUID> findExpiredIds(LocalDateTime now, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AuthToken at WHERE at.id IN ?1")
+    int deleteByIdIn(Collection<UUID> ids);
 }
@@ -1,14 +1,21 @@
 package org.delcom.app.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.delcom.app.entities.Food;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface FoodRepository extends JpaRepository<Food, UUID> {
     
@@ -18,21 +25,55 @@ public interface FoodRepository extends JpaRepository<Food, UUID> {
             "AND f.userId = :userId ORDER BY f.createdAt DESC")
     List<Food> findByKeyword(UUID userId, String keyword);
 
+    // Query cache (region food-lists): hanya id yang disimpan, entity diambil dari region foods.
+    // Setiap write ke tabel foods membatalkan semua hasil di region ini.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "food-lists") })
     @Query("SELECT f FROM Food f WHERE f.userId = :userId ORDER BY f.createdAt DESC")
     List<Food> findAllByUserId(UUID userId);
 
+    @Query("SELECT COUNT(f) FROM Food f WHERE f.userId = :userId")
+    long countByUserId(UUID userId);
+
+    // Reference count file cover content-addressed (lintas user)
+    @Query("SELECT COUNT(f) FROM Food f WHERE f.cover = :cover")
+    long countByCover(String cover);
+
+    // Nama cover yang masih direferensikan, untuk pengecekan orphan per batch
+    @Query("SELECT DISTINCT f.cover FROM Food f WHERE f.cover IN :covers")
+    List<String> findReferencedCovers(Collection<String> covers);
+
+    // Keyset pagination: halaman pertama dan halaman setelah cursor (createdAt, id)
+    @Query("SELECT f FROM Food f WHERE f.userId = :userId ORDER BY f.createdAt DESC, f.id DESC")
+    List<Food> findPageByUserId(UUID userId, Limit limit);
+
+    @Query("SELECT f FROM Food f WHERE f.userId = :userId " +
+            "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id)) " +
+            "ORDER BY f.createdAt DESC, f.id DESC")
+    List<Food> findPageByUserIdAfter(UUID userId, LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query("SELECT f FROM Food f WHERE f.userId = :userId AND f.category = :category " +
+            "ORDER BY f.createdAt DESC, f.id DESC")
+    List<Food> findPageByUserIdAndCategory(UUID userId, String category, Limit limit);
+
+    @Query("SELECT f FROM Food f WHERE f.userId = :userId AND f.category = :category " +
+            "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id)) " +
+            "ORDER BY f.createdAt DESC, f.id DESC")
+    List<Food> findPageByUserIdAndCategoryAfter(UUID userId, String category, LocalDateTime createdAt,
+            UUID id, Limit limit);
+
     @Query("SELECT f FROM Food f WHERE f.id = :id AND f.userId = :userId")
     Optional<Food> findByUserIdAndId(UUID userId, UUID id);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "food-lists") })
     @Query("SELECT f FROM Food f WHERE f.category = :category AND f.userId = :userId ORDER BY f.createdAt DESC")
     List<Food> findByUserIdAndCategory(UUID userId, String category);
 
-    @Query("SELECT f.category, SUM(f.calories) FROM Food f WHERE f.userId = :userId GROUP BY f.category")
-    List<Object[]> getTotalCaloriesByCategory(UUID userId);
-
-    @Query("SELECT AVG(f.protein), AVG(f.carbohydrates), AVG(f.fat), AVG(f.fiber) FROM Food f WHERE f.userId = :userId")
-    List<Object[]> getAverageNutrition(UUID userId);
-
-    @Query("SELECT f.category, COUNT(f) FROM Food f WHERE f.userId = :userId GROUP BY f.category")
-    List<Object[]> getCountByCategory(UUID userId);
+    // Sumber data untuk rebuild/verify nutrition rollup
+    @Query("SELECT f.category, COUNT(f), SUM(f.calories), SUM(f.protein), SUM(f.carbohydrates), " +
+            "SUM(f.fat), SUM(f.fiber) FROM Food f WHERE f.userId = :userId GROUP BY f.category")
+    List<Object[]> getNutritionTotalsByCategory(UUID userId);
 }
\ No newline at end of file
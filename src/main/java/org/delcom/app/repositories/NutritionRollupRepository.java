@@ -0,0 +1,68 @@
+package org.delcom.app.repositories;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.entities.NutritionRollup;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface NutritionRollupRepository extends JpaRepository<NutritionRollup, UUID> {
+
+    @Query("SELECT r FROM NutritionRollup r WHERE r.userId = :userId ORDER BY r.category")
+    List<NutritionRollup> findAllByUserId(UUID userId);
+
+    // Update atomik di database agar tidak ada lost update antar request
+    @Modifying
+    @Query("UPDATE NutritionRollup r SET r.foodCount = r.foodCount + :count, " +
+            "r.totalCalories = r.totalCalories + :calories, " +
+            "r.totalProtein = r.totalProtein + :protein, " +
+            "r.totalCarbohydrates = r.totalCarbohydrates + :carbohydrates, " +
+            "r.totalFat = r.totalFat + :fat, " +
+            "r.totalFiber = r.totalFiber + :fiber, " +
+            "r.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE r.userId = :userId AND r.category = :category")
+    int applyDelta(UUID userId, String category, long count, double calories, double protein,
+            double carbohydrates, double fat, double fiber);
+
+    // Nilai absolut hasil rebuild
+    @Modifying
+    @Query("UPDATE NutritionRollup r SET r.foodCount = :count, " +
+            "r.totalCalories = :calories, " +
+            "r.totalProtein = :protein, " +
+            "r.totalCarbohydrates = :carbohydrates, " +
+            "r.totalFat = :fat, " +
+            "r.totalFiber = :fiber, " +
+            "r.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE r.userId = :userId AND r.category = :category")
+    int setTotals(UUID userId, String category, long count, double calories, double protein,
+            double carbohydrates, double fat, double fiber);
+
+    boolean existsByUserId(UUID userId);
+
+    // Baris nol untuk kategori baru; jika request lain sudah membuatnya, tidak melakukan apa-apa
+    // (menunggu commit transaksi lain, bukan melanggar uk_nutrition_rollups_user_category).
+    // Native spaces: hanya tabel ini yang dianggap berubah, second-level cache lain tetap utuh.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "nutrition_rollups"))
+    @Query(value = "INSERT INTO nutrition_rollups (id, user_id, category, food_count, total_calories, " +
+            "total_protein, total_carbohydrates, total_fat, total_fiber, updated_at) " +
+            "VALUES (:id, :userId, :category, 0, 0, 0, 0, 0, 0, CURRENT_TIMESTAMP) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertEmptyIfAbsent(UUID id, UUID userId, String category);
+
+    @Modifying
+    @Query("DELETE FROM NutritionRollup r WHERE r.userId = :userId AND r.foodCount <= 0")
+    void deleteEmptyByUserId(UUID userId);
+
+    @Modifying
+    @Query("DELETE FROM NutritionRollup r WHERE r.userId = :userId")
+    void deleteByUserId(UUID userId);
+}
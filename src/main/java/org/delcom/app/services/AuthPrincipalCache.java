@@ -0,0 +1,142 @@
+package org.delcom.app.services;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.delcom.app.entities.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Cache token/session -> User terautentikasi, terbatas ukuran dan kedaluwarsa (TTL)
+@Component
+public class AuthPrincipalCache {
+    private static final String SESSION_KEY_PREFIX = "session:";
+
+    private record Entry(User user, UUID userId, long expiresAt) {
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    // Naik setiap kali ada invalidasi, mencegah data lama masuk cache saat terjadi race
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public AuthPrincipalCache(
+            @Value("${app.auth.principal-cache.max-entries:10000}") int maxEntries,
+            @Value("${app.auth.principal-cache.ttl:60s}") Duration ttl,
+            MetricsRegistry metricsRegistry) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+
+        metricsRegistry.registerCounter("auth_principal_cache_hits", this::getHits);
+        metricsRegistry.registerCounter("auth_principal_cache_misses", this::getMisses);
+        metricsRegistry.registerCounter("auth_principal_cache_evictions", this::getEvictions);
+        metricsRegistry.registerGauge("auth_principal_cache_size", this::getSize);
+    }
+
+    // Mengembalikan salinan User agar perubahan di request tidak mengotori cache
+    public User get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt() > 0) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.user().copy();
+    }
+
+    // Key untuk principal berbasis session (halaman view)
+    public static String sessionKey(String sessionId) {
+        return SESSION_KEY_PREFIX + sessionId;
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Menyimpan User ke cache.
+     *
+     * @param generation nilai generation() sebelum User dimuat dari database;
+     *                   jika sudah berubah, User dianggap basi dan tidak disimpan
+     */
+    public void put(String key, User user, long generation) {
+        if (this.generation.get() != generation) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            prune();
+        }
+        entries.put(key, new Entry(user.copy(), user.getId(), System.nanoTime() + ttlNanos));
+    }
+
+    public void evict(String key) {
+        generation.incrementAndGet();
+        if (entries.remove(key) != null) {
+            evictions.increment();
+        }
+    }
+
+    public void evictUser(UUID userId) {
+        generation.incrementAndGet();
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().userId().equals(userId)) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    // Buang entri kedaluwarsa; jika masih penuh, buang sebagian entri
+    private void prune() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            if (now - it.next().getValue().expiresAt() > 0) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+
+        it = entries.entrySet().iterator();
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    // Metrics
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,128 @@
+package org.delcom.app.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.delcom.app.repositories.AuthTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Menghapus baris auth_tokens yang sudah kedaluwarsa secara berkala. Delete
+ * dilakukan per batch kecil, masing-masing dalam transaksi sendiri, dengan
+ * jeda di antaranya agar lock tidak ditahan lama dan autovacuum sempat jalan.
+ */
+@Service
+public class AuthTokenPurger {
+    public record Report(long deletedRows, int batches, long durationMillis, boolean complete) {
+    }
+
+    private final AuthTokenRepository authTokenRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration batchPause;
+
+    private final LongAdder deleted = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    // Diperbarui setiap run; COUNT(*) tidak dijalankan setiap kali metrics dibaca
+    private final AtomicLong tableRows = new AtomicLong(-1);
+    private final AtomicLong lastRunDeleted = new AtomicLong();
+    private final AtomicLong lastRunMillis = new AtomicLong();
+
+    public AuthTokenPurger(AuthTokenRepository authTokenRepository,
+            @Value("${app.auth.token-purge.enabled:true}") boolean enabled,
+            @Value("${app.auth.token-purge.batch-size:500}") int batchSize,
+            @Value("${app.auth.token-purge.max-batches-per-run:200}") int maxBatchesPerRun,
+            @Value("${app.auth.token-purge.batch-pause:50ms}") Duration batchPause,
+            MetricsRegistry metricsRegistry) {
+        this.authTokenRepository = authTokenRepository;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+        this.batchPause = batchPause;
+
+        metricsRegistry.registerGauge("auth_tokens_rows", tableRows::get);
+        metricsRegistry.registerCounter("auth_token_purge_deleted", deleted::sum);
+        metricsRegistry.registerCounter("auth_token_purge_batches", batches::sum);
+        metricsRegistry.registerCounter("auth_token_purge_runs", runs::sum);
+        metricsRegistry.registerCounter("auth_token_purge_errors", errors::sum);
+        metricsRegistry.registerGauge("auth_token_purge_last_deleted", lastRunDeleted::get);
+        metricsRegistry.registerGauge("auth_token_purge_last_duration_ms", lastRunMillis::get);
+        metricsRegistry.registerGauge("auth_token_purge_rows_per_second", this::getLastRowsPerSecond);
+    }
+
+    @Scheduled(initialDelayString = "${app.auth.token-purge.initial-delay:1m}",
+            fixedDelayString = "${app.auth.token-purge.interval:5m}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        Report report = runOnce();
+        if (report.deletedRows() > 0) {
+            System.out.println("Auth token purge: " + report.deletedRows() + " token kedaluwarsa dihapus dalam "
+                    + report.batches() + " batch (" + report.durationMillis() + " ms)"
+                    + (report.complete() ? "" : ", dilanjutkan pada run berikutnya"));
+        }
+    }
+
+    // Satu run; synchronized agar run manual tidak bertabrakan dengan jadwal
+    public synchronized Report runOnce() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        long deletedRows = 0;
+        int batchCount = 0;
+        boolean complete = false;
+
+        try {
+            while (batchCount < maxBatchesPerRun) {
+                List<UUID> ids = authTokenRepository.findExpiredIds(now, Limit.of(batchSize));
+                if (ids.isEmpty()) {
+                    complete = true;
+                    break;
+                }
+                // Transaksi pendek per batch (@Transactional di repository)
+                int count = authTokenRepository.deleteByIdIn(ids);
+                deletedRows += count;
+                batchCount++;
+                deleted.add(count);
+                batches.increment();
+
+                if (ids.size() < batchSize) {
+                    complete = true;
+                    break;
+                }
+                if (!batchPause.isZero()) {
+                    Thread.sleep(batchPause.toMillis());
+                }
+            }
+            tableRows.set(authTokenRepository.count());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            errors.increment();
+            System.out.println("Auth token purge gagal: " + e.getMessage());
+        }
+
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        runs.increment();
+        lastRunDeleted.set(deletedRows);
+        lastRunMillis.set(durationMillis);
+        return new Report(deletedRows, batchCount, durationMillis, complete);
+    }
+
+    // Throughput run terakhir, termasuk jeda antar batch
+    public double getLastRowsPerSecond() {
+        long millis = lastRunMillis.get();
+        return millis == 0 ? 0.0 : lastRunDeleted.get() * 1000.0 / millis;
+    }
+}
@@ -1,23 +1,28 @@
 package org.delcom.app.services;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.repositories.AuthTokenRepository;
+import org.delcom.app.utils.JwtUtil;
+import org.delcom.app.utils.TransactionUtil;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AuthTokenService {
     private final AuthTokenRepository authTokenRepository;
+    private final AuthPrincipalCache authPrincipalCache;
 
-    public AuthTokenService(AuthTokenRepository authTokenRepository) {
+    public AuthTokenService(AuthTokenRepository authTokenRepository, AuthPrincipalCache authPrincipalCache) {
         this.authTokenRepository = authTokenRepository;
+        this.authPrincipalCache = authPrincipalCache;
     }
 
     @Transactional(readOnly = true)
     public AuthToken findUserToken(UUID userId, String token) {
-        return authTokenRepository.findUserToken(userId, token);
+        return authTokenRepository.findUserToken(userId, JwtUtil.hashToken(token), LocalDateTime.now());
     }
 
     @Transactional
@@ -28,5 +33,6 @@ public class AuthTokenService {
     @Transactional
     public void deleteAuthToken(UUID userId) {
         authTokenRepository.deleteByUserId(userId);
+        TransactionUtil.afterCommit(() -> authPrincipalCache.evictUser(userId));
     }
 }
@@ -0,0 +1,141 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.delcom.app.utils.SizeBoundedLruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Cache isi cover kecil yang sering diminta (halaman list), disimpan di direct
+ * ByteBuffer di luar heap. Hit dilayani tanpa syscall filesystem. Dibatasi
+ * ukuran total; saat penuh, entri yang paling lama tidak diakses dibuang.
+ */
+@Component
+public class CoverMemoryCache {
+    // Isi dan metadata cover; content read-only, posisi/limit tidak pernah diubah
+    public record Entry(ByteBuffer content, long lastModified, String contentType, String cacheControl) {
+    }
+
+    private final FileStorageService fileStorageService;
+    private final boolean enabled;
+    private final long maxBytes;
+    private final long maxFileBytes;
+
+    // Key: "<filename>?<variant>"
+    private final SizeBoundedLruCache<String, Entry> entries;
+
+    // Naik setiap kali ada invalidasi, mencegah isi lama masuk cache saat terjadi race
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CoverMemoryCache(FileStorageService fileStorageService,
+            @Value("${app.cover.memory-cache.enabled:true}") boolean enabled,
+            @Value("${app.cover.memory-cache.max-size:32MB}") DataSize maxSize,
+            @Value("${app.cover.memory-cache.max-file-size:64KB}") DataSize maxFileSize,
+            MetricsRegistry metricsRegistry) {
+        this.fileStorageService = fileStorageService;
+        this.enabled = enabled;
+        this.maxBytes = maxSize.toBytes();
+        this.maxFileBytes = Math.min(maxFileSize.toBytes(), Integer.MAX_VALUE);
+        this.entries = new SizeBoundedLruCache<>(maxBytes, entry -> entry.content().remaining());
+
+        metricsRegistry.registerCounter("cover_memory_cache_hits", hits::sum);
+        metricsRegistry.registerCounter("cover_memory_cache_misses", misses::sum);
+        metricsRegistry.registerGauge("cover_memory_cache_hit_ratio", this::getHitRatio);
+        metricsRegistry.registerCounter("cover_memory_cache_evictions", entries::getEvictions);
+        metricsRegistry.registerGauge("cover_memory_cache_bytes", entries::getBytes);
+        metricsRegistry.registerGauge("cover_memory_cache_entries", entries::size);
+    }
+
+    /**
+     * Mengambil cover dari cache, atau memuatnya dari disk jika cukup kecil.
+     *
+     * @param variant variant yang diminta, null untuk original
+     * @return isi cover, atau null jika tidak ada, terlalu besar, atau variant belum dibuat
+     *         (pemanggil melayani dari file); ketiganya tidak dihitung sebagai miss
+     */
+    public Entry get(String filename, CoverVariant variant) {
+        if (!enabled) {
+            return null;
+        }
+        String key = filename + "?" + (variant != null ? variant.getKey() : "");
+        Entry cached = entries.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        long currentGeneration = generation.get();
+        FileStorageService.CoverFile cover = fileStorageService.resolveCover(filename, variant);
+        if (cover == null) {
+            return null;
+        }
+        // Jangan cache original sebagai pengganti variant yang belum selesai diproses
+        if (variant != null && !cover.path().equals(fileStorageService.loadVariant(filename, variant))) {
+            return null;
+        }
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(cover.path(), BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+        // Cover besar tidak pernah masuk cache: tidak perlu membuka file dan bukan miss
+        long size = attributes.size();
+        if (size > maxFileBytes || size > maxBytes) {
+            return null;
+        }
+
+        misses.increment();
+        // Hasil yang tidak akan disimpan (ada invalidasi sejak resolve) dibaca ke heap:
+        // direct buffer hanya dilepas oleh GC dan mahal untuk sekali pakai
+        boolean cacheable = generation.get() == currentGeneration;
+        Entry entry;
+        try (FileChannel channel = FileChannel.open(cover.path(), StandardOpenOption.READ)) {
+            // File diganti di antara readAttributes dan open (nama yang sama dipakai ulang)
+            if (channel.size() != size) {
+                return null;
+            }
+            ByteBuffer buffer = cacheable ? ByteBuffer.allocateDirect((int) size) : ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // baca sampai penuh
+            }
+            buffer.flip();
+            entry = new Entry(buffer.asReadOnlyBuffer(), attributes.lastModifiedTime().toMillis(),
+                    cover.contentType(), cover.cacheControl());
+        } catch (IOException e) {
+            return null;
+        }
+
+        if (!cacheable || generation.get() != currentGeneration) {
+            return entry;
+        }
+        entries.put(key, entry);
+        return entry;
+    }
+
+    // Buang semua entri untuk satu file cover (original dan variant)
+    public void invalidate(String filename) {
+        generation.incrementAndGet();
+        String prefix = filename + "?";
+        entries.removeIf(key -> key.startsWith(prefix));
+    }
+
+    public double getHitRatio() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+}
@@ -0,0 +1,145 @@
+package org.delcom.app.services;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.delcom.app.utils.ImageUtil;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Antrean pemrosesan cover: validasi magic bytes, decode, lalu encode ulang
+ * menjadi variant thumb/card/full (JPEG, tanpa metadata EXIF). Dijalankan di
+ * thread pool terbatas agar upload tidak menunggu proses resize.
+ */
+@Service
+public class CoverProcessingService implements DisposableBean {
+    // Job yang sudah selesai dibuang dari map di atas batas ini (status dibaca dari disk)
+    private static final int MAX_TRACKED_JOBS = 1000;
+
+    public enum Status {
+        QUEUED, PROCESSING, DONE, FAILED, REJECTED
+    }
+
+    public record Job(String filename, Status status, String error, Instant updatedAt) {
+    }
+
+    private final FileStorageService fileStorageService;
+    private final ThreadPoolExecutor executor;
+    // Satu entri per nama file cover; nama berversi sehingga dipangkas di pruneFinished()
+    private final ConcurrentHashMap<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public CoverProcessingService(FileStorageService fileStorageService,
+            @Value("${app.cover.processing.threads:2}") int threads,
+            @Value("${app.cover.processing.queue-capacity:100}") int queueCapacity,
+            MetricsRegistry metricsRegistry) {
+        this.fileStorageService = fileStorageService;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cover-processing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        metricsRegistry.registerGauge("cover_processing_queue_depth", this::getQueueDepth);
+        metricsRegistry.registerGauge("cover_processing_active", executor::getActiveCount);
+        metricsRegistry.registerCounter("cover_processing_completed", completed::sum);
+        metricsRegistry.registerCounter("cover_processing_failed", failed::sum);
+        metricsRegistry.registerCounter("cover_processing_rejected", rejected::sum);
+    }
+
+    /**
+     * Memasukkan cover ke antrean. Jika antrean penuh, job ditandai REJECTED dan
+     * cover tetap dilayani dari file original.
+     */
+    public Job enqueue(String filename) {
+        // Nama file adalah hash isi: variant yang sudah ada (dari food lain) tetap valid
+        if (hasAllVariants(filename)) {
+            return update(filename, Status.DONE, null);
+        }
+
+        if (jobs.size() >= MAX_TRACKED_JOBS) {
+            pruneFinished();
+        }
+
+        Job queued = update(filename, Status.QUEUED, null);
+        try {
+            executor.execute(() -> process(filename));
+            return queued;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return update(filename, Status.REJECTED, "Antrean pemrosesan cover penuh");
+        }
+    }
+
+    // Status job; cover lama (sebelum restart) dianggap DONE jika semua variant ada di disk
+    public Job getStatus(String filename) {
+        Job job = jobs.get(filename);
+        if (job != null) {
+            return job;
+        }
+        return hasAllVariants(filename) ? new Job(filename, Status.DONE, null, null) : null;
+    }
+
+    private boolean hasAllVariants(String filename) {
+        for (CoverVariant variant : CoverVariant.values()) {
+            if (!Files.exists(fileStorageService.loadVariant(filename, variant))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void pruneFinished() {
+        jobs.values().removeIf(job -> job.status() != Status.QUEUED && job.status() != Status.PROCESSING);
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private Job update(String filename, Status status, String error) {
+        Job job = new Job(filename, status, error, Instant.now());
+        jobs.put(filename, job);
+        return job;
+    }
+
+    private void process(String filename) {
+        update(filename, Status.PROCESSING, null);
+        try {
+            BufferedImage source = ImageUtil.decode(fileStorageService.loadFile(filename));
+            for (CoverVariant variant : CoverVariant.values()) {
+                ImageUtil.writeJpeg(ImageUtil.resizeToWidth(source, variant.getMaxWidth()),
+                        fileStorageService.loadVariant(filename, variant));
+            }
+            completed.increment();
+            update(filename, Status.DONE, null);
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            update(filename, Status.FAILED, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,9 @@
+package org.delcom.app.services;
+
+// Dilempar saat slot resize on-demand tidak tersedia dalam batas waktu; dipetakan ke HTTP 503
+public class CoverResizeBusyException extends RuntimeException {
+
+    public CoverResizeBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,303 @@
+package org.delcom.app.services;
+
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.delcom.app.utils.ImageUtil;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Resize cover on-demand (?w=&h=&fit=) dengan cache disk LRU yang dibatasi
+ * ukuran total. Index LRU disimpan di heap (nama file -> ukuran) dan dibangun
+ * ulang dari isi direktori cache saat startup. Request bersamaan untuk variant
+ * yang sama hanya memicu satu kali decode/resize.
+ *
+ * Lebar dan tinggi dibulatkan ke atas ke salah satu {@link #SIZES}, sehingga
+ * satu cover paling banyak punya beberapa variant per fit, bukan satu per
+ * kombinasi w/h. Jika slot resize penuh lebih lama dari acquire-timeout,
+ * {@link CoverResizeBusyException} dilempar.
+ */
+@Service
+public class CoverResizeService implements InitializingBean {
+    public static final int MAX_DIMENSION = 2048;
+
+    // Ukuran yang benar-benar dirender; permintaan dibulatkan ke atas ke nilai terdekat
+    static final int[] SIZES = { 64, 128, 256, 384, 512, 768, 1024, 1536, MAX_DIMENSION };
+
+    public enum Fit {
+        // Muat di dalam kotak w x h, rasio dipertahankan
+        CONTAIN,
+        // Isi kotak w x h lalu potong bagian tengah
+        COVER;
+
+        public static Fit fromKey(String key) {
+            if (key == null || key.isBlank()) {
+                return CONTAIN;
+            }
+            for (Fit fit : values()) {
+                if (fit.name().equalsIgnoreCase(key)) {
+                    return fit;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final FileStorageService fileStorageService;
+    private final String cacheDirSetting;
+    private final long maxCacheBytes;
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+
+    private Path cacheDir;
+
+    // LRU (access order) nama file cache -> ukuran byte; dijaga oleh lock "this"
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(256, 0.75f, true);
+    private long cacheBytes;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public CoverResizeService(FileStorageService fileStorageService,
+            @Value("${app.cover.resize.cache-dir:}") String cacheDir,
+            @Value("${app.cover.resize.cache-max-size:256MB}") DataSize maxCacheSize,
+            @Value("${app.cover.resize.max-concurrent:2}") int maxConcurrent,
+            @Value("${app.cover.resize.acquire-timeout:2s}") Duration acquireTimeout,
+            MetricsRegistry metricsRegistry) {
+        this.fileStorageService = fileStorageService;
+        this.cacheDirSetting = cacheDir;
+        this.maxCacheBytes = maxCacheSize.toBytes();
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+
+        metricsRegistry.registerCounter("cover_resize_cache_hits", hits::sum);
+        metricsRegistry.registerCounter("cover_resize_cache_misses", misses::sum);
+        metricsRegistry.registerCounter("cover_resize_cache_evictions", evictions::sum);
+        metricsRegistry.registerCounter("cover_resize_rejected", rejected::sum);
+        metricsRegistry.registerGauge("cover_resize_cache_bytes", this::getCacheBytes);
+        metricsRegistry.registerGauge("cover_resize_cache_entries", this::getCacheEntries);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        // Default di dalam direktori upload; tidak diperiksa oleh UploadGarbageCollector (bukan shard)
+        cacheDir = cacheDirSetting.isBlank()
+                ? fileStorageService.getUploadPath().resolve(".resized")
+                : Paths.get(cacheDirSetting);
+        Files.createDirectories(cacheDir);
+        loadIndex();
+    }
+
+    /**
+     * Mengembalikan cover yang sudah di-resize, dari cache atau dibuat sekarang.
+     *
+     * @param width  lebar maksimum, 1..MAX_DIMENSION (null = bebas); dibulatkan ke atas ke SIZES
+     * @param height tinggi maksimum, 1..MAX_DIMENSION (null = bebas); dibulatkan ke atas ke SIZES
+     * @return file hasil resize (JPEG), atau null jika cover tidak ditemukan
+     * @throws CoverResizeBusyException jika slot resize tidak tersedia dalam acquire-timeout
+     */
+    public FileStorageService.CoverFile resize(String filename, Integer width, Integer height, Fit fit)
+            throws IOException {
+        FileStorageService.CoverFile original = fileStorageService.resolveCover(filename, null);
+        if (original == null) {
+            return null;
+        }
+
+        int w = width != null ? snap(width) : MAX_DIMENSION;
+        int h = height != null ? snap(height) : MAX_DIMENSION;
+        // Tanpa salah satu dimensi, COVER sama dengan CONTAIN
+        Fit effectiveFit = width == null || height == null ? Fit.CONTAIN : fit;
+        String key = cacheKey(filename, w, h, effectiveFit);
+        Path cached = cacheDir.resolve(key);
+
+        if (touch(key) && Files.isRegularFile(cached)) {
+            hits.increment();
+            return new FileStorageService.CoverFile(cached, "image/jpeg", original.immutable());
+        }
+
+        misses.increment();
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(key, future);
+        if (existing == null) {
+            try {
+                future.complete(render(filename, original.path(), w, h, effectiveFit, cached));
+            } catch (Throwable e) {
+                // Termasuk Error (mis. OutOfMemoryError) agar request yang menunggu tidak menggantung
+                future.completeExceptionally(e);
+            } finally {
+                inFlight.remove(key, future);
+            }
+        } else {
+            future = existing;
+        }
+
+        try {
+            return new FileStorageService.CoverFile(future.join(), "image/jpeg", original.immutable());
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private Path render(String filename, Path originalPath, int w, int h, Fit fit, Path target)
+            throws IOException {
+        // Menunggu dibatasi: tanpa batas, request yang antre memegang worker Tomcat
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new CoverResizeBusyException("Server sedang sibuk, silakan coba lagi");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CoverResizeBusyException("Proses resize cover dibatalkan");
+        }
+        try {
+            Dimension size = ImageUtil.readSize(originalPath);
+            double scale = fit == Fit.COVER
+                    ? Math.max(w / (double) size.width, h / (double) size.height)
+                    : Math.min(w / (double) size.width, h / (double) size.height);
+            // Tidak memperbesar image
+            scale = Math.min(1.0, scale);
+            int scaledWidth = Math.max(1, (int) Math.round(size.width * scale));
+            int scaledHeight = Math.max(1, (int) Math.round(size.height * scale));
+
+            // Decode dari variant FULL jika cukup besar: jauh lebih murah daripada original
+            Path source = originalPath;
+            Path full = fileStorageService.loadVariant(filename, CoverVariant.FULL);
+            if (Files.isRegularFile(full)) {
+                try {
+                    if (ImageUtil.readSize(full).width >= scaledWidth) {
+                        source = full;
+                    }
+                } catch (IOException e) {
+                    // pakai original
+                }
+            }
+
+            BufferedImage image = ImageUtil.scale(ImageUtil.decode(source), scaledWidth, scaledHeight);
+            if (fit == Fit.COVER) {
+                image = ImageUtil.cropCenter(image, Math.min(w, scaledWidth), Math.min(h, scaledHeight));
+            }
+            ImageUtil.writeJpeg(image, target);
+            add(target.getFileName().toString(), Files.size(target));
+            return target;
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Ukuran terkecil di SIZES yang tidak lebih kecil dari value (value sudah divalidasi <= MAX_DIMENSION)
+    static int snap(int value) {
+        for (int size : SIZES) {
+            if (size >= value) {
+                return size;
+            }
+        }
+        return MAX_DIMENSION;
+    }
+
+    // Nama file cache: <nama tanpa ekstensi>-w<W>-h<H>-<fit>.jpg
+    private static String cacheKey(String filename, int w, int h, Fit fit) {
+        int dot = filename.lastIndexOf('.');
+        String base = dot > 0 ? filename.substring(0, dot) : filename;
+        return base + "-w" + w + "-h" + h + "-" + fit.name().toLowerCase(Locale.ROOT) + ".jpg";
+    }
+
+    // Tandai entri sebagai baru dipakai; false jika belum ada di index
+    private synchronized boolean touch(String key) {
+        return index.get(key) != null;
+    }
+
+    private void add(String key, long size) {
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            Long previous = index.put(key, size);
+            cacheBytes += size - (previous != null ? previous : 0);
+
+            Iterator<Map.Entry<String, Long>> iterator = index.entrySet().iterator();
+            while (cacheBytes > maxCacheBytes && iterator.hasNext()) {
+                Map.Entry<String, Long> eldest = iterator.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                iterator.remove();
+                cacheBytes -= eldest.getValue();
+                evicted.add(eldest.getKey());
+            }
+        }
+
+        // Hapus file di luar lock
+        for (String name : evicted) {
+            evictions.increment();
+            try {
+                Files.deleteIfExists(cacheDir.resolve(name));
+            } catch (IOException e) {
+                // file tetap ada tetapi tidak dihitung lagi; ditimpa jika dibuat ulang
+            }
+        }
+    }
+
+    // Bangun index dari isi direktori, urut dari yang paling lama dipakai (mtime)
+    private void loadIndex() throws IOException {
+        record Cached(String name, long size, long modified) {
+        }
+        List<Cached> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(cacheDir, "*.jpg")) {
+            for (Path path : entries) {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                if (attributes.isRegularFile()) {
+                    files.add(new Cached(path.getFileName().toString(), attributes.size(),
+                            attributes.lastModifiedTime().toMillis()));
+                }
+            }
+        }
+        files.sort(Comparator.comparingLong(Cached::modified));
+        for (Cached file : files) {
+            add(file.name(), file.size());
+        }
+    }
+
+    public synchronized long getCacheBytes() {
+        return cacheBytes;
+    }
+
+    public synchronized int getCacheEntries() {
+        return index.size();
+    }
+}
@@ -0,0 +1,37 @@
+package org.delcom.app.services;
+
+import java.util.Locale;
+
+// Ukuran turunan cover yang dibuat oleh CoverProcessingService (lebar maksimum, px)
+public enum CoverVariant {
+    THUMB(160),
+    CARD(480),
+    FULL(1280);
+
+    private final int maxWidth;
+
+    CoverVariant(int maxWidth) {
+        this.maxWidth = maxWidth;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public String getKey() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    // Parameter ?variant= dari URL; null jika kosong atau tidak dikenal
+    public static CoverVariant fromKey(String key) {
+        if (key == null) {
+            return null;
+        }
+        for (CoverVariant variant : values()) {
+            if (variant.getKey().equalsIgnoreCase(key)) {
+                return variant;
+            }
+        }
+        return null;
+    }
+}
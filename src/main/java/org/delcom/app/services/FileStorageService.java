@@ -1,55 +1,246 @@
 package org.delcom.app.services;
 
+import org.delcom.app.utils.ImageFormat;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 @Service
 public class FileStorageService {
+    // Nama file content-addressed: <sha256 hex>[.variant].<ext>
+    private static final Pattern CONTENT_NAME = Pattern.compile(
+            "^[0-9a-f]{64}(\\.(thumb|card|full))?\\.[a-z]+$");
+    // Nama berversi dari format sebelumnya: cover_<uuid>-<16 hex sha256>[.variant].<ext>
+    private static final Pattern VERSIONED_NAME = Pattern.compile(
+            "^cover_[0-9a-f\\-]{36}-[0-9a-f]{16}(\\.(thumb|card|full))?\\.[a-z]+$");
+
+    public static final long MAX_COVER_SIZE = 5 * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     @Value("${app.upload.dir:./uploads}")
     protected String uploadDir;
 
-    // Store file untuk Todo/Food Cover
-    public String storeFile(MultipartFile file, UUID entityId) throws IOException {
+    // Cover yang sudah disimpan tetapi reference-nya (Food.cover) belum commit: nama -> jumlah
+    // upload. File ini tidak dihapus oleh deleteFile maupun UploadGarbageCollector, karena
+    // countByCover/findReferencedCovers belum melihat reference tersebut
+    private final ConcurrentHashMap<String, Integer> pending = new ConcurrentHashMap<>();
+
+    // Hasil upload: nama file (disimpan di kolom cover), format hasil deteksi, dan ukuran
+    public record StoredCover(String filename, ImageFormat format, long size) {
+    }
+
+    // File cover siap dilayani: content type dari metadata upload (format terdeteksi)
+    public record CoverFile(Path path, String contentType, boolean immutable) {
+        // Endpoint cover butuh login, jadi hanya cache browser (private).
+        // Nama lama tanpa hash tetap harus divalidasi ulang.
+        public String cacheControl() {
+            return immutable ? "private, max-age=31536000, immutable" : "no-cache";
+        }
+    }
+
+    /**
+     * Store file untuk Food Cover dari upload multipart.
+     *
+     * @see #storeStream(InputStream, long)
+     */
+    public StoredCover storeFile(MultipartFile file) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return storeStream(input, MAX_COVER_SIZE);
+        }
+    }
+
+    /**
+     * Store cover secara content-addressed dalam satu kali baca stream: magic
+     * bytes, batas ukuran, dan SHA-256 dihitung sambil menulis ke file sementara,
+     * lalu file di-rename atomik ke upload/ab/cd/&lt;sha256&gt;.&lt;ext&gt;. Image yang
+     * sama untuk banyak food hanya disimpan sekali, dan setiap isi baru mendapat
+     * URL baru sehingga response boleh di-cache sebagai immutable.
+     *
+     * Hasilnya ditandai pending sampai pemanggil memanggil {@link #releasePending(String)}
+     * setelah reference ke file ini commit (atau gagal).
+     *
+     * @param input    isi file; tidak ditutup
+     * @param maxBytes ukuran maksimum
+     * @throws InvalidCoverException jika isi bukan image yang didukung atau melebihi maxBytes
+     */
+    public StoredCover storeStream(InputStream input, long maxBytes) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read = input.readNBytes(buffer, 0, ImageFormat.HEADER_LENGTH);
+        ImageFormat format = ImageFormat.detect(buffer, read);
+        if (format == null) {
+            throw new InvalidCoverException("Isi file bukan image yang valid", false);
+        }
+
         Path uploadPath = Paths.get(uploadDir);
         if (!Files.exists(uploadPath)) {
             Files.createDirectories(uploadPath);
         }
 
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        // File sementara di direktori upload agar rename tetap di filesystem yang sama
+        MessageDigest digest = sha256();
+        long size = 0;
+        Path tempPath = Files.createTempFile(uploadPath, ".upload", ".tmp");
+        try {
+            try (OutputStream output = Files.newOutputStream(tempPath)) {
+                while (read > 0) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new InvalidCoverException("Ukuran image terlalu besar", true);
+                    }
+                    digest.update(buffer, 0, read);
+                    output.write(buffer, 0, read);
+                    read = input.read(buffer);
+                }
+            }
+
+            String filename = HexFormat.of().formatHex(digest.digest()) + format.getExtension();
+            Path target = loadFile(filename);
+            // Ditandai sebelum cek keberadaan; penghapusan memeriksa tanda ini secara atomik
+            pending.merge(filename, 1, Integer::sum);
+            try {
+                // Isi sama sudah tersimpan: dipakai apa adanya. mtime tidak diubah karena
+                // ETag/Last-Modified URL immutable dihitung dari ukuran dan mtime
+                if (!Files.exists(target)) {
+                    Files.createDirectories(target.getParent());
+                    Files.move(tempPath, target, StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                }
+            } catch (IOException | RuntimeException e) {
+                releasePending(filename);
+                throw e;
+            }
+            return new StoredCover(filename, format, size);
+        } finally {
+            Files.deleteIfExists(tempPath);
         }
+    }
 
-        String filename = "cover_" + entityId.toString() + fileExtension;
+    /**
+     * Mencari file cover (atau variant-nya) untuk dilayani.
+     *
+     * @param variant variant yang diminta; fallback ke original jika belum ada
+     * @return file cover, atau null jika nama tidak valid atau file tidak ada
+     */
+    public CoverFile resolveCover(String filename, CoverVariant variant) {
+        if (filename.isEmpty() || filename.startsWith(".") || filename.contains("/") || filename.contains("\\")) {
+            return null;
+        }
 
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        if (variant != null) {
+            String variantName = variantFilename(filename, variant);
+            Path variantPath = loadFile(variantName);
+            if (Files.isRegularFile(variantPath)) {
+                return new CoverFile(variantPath, ImageFormat.JPEG.getContentType(), isImmutableName(variantName));
+            }
+        }
 
-        return filename;
+        Path path = loadFile(filename);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        ImageFormat format = ImageFormat.fromFilename(filename);
+        // Original sebagai pengganti variant yang belum diproses tidak boleh di-cache
+        // lama: URL yang sama akan berisi variant setelah pemrosesan selesai
+        return new CoverFile(path,
+                format != null ? format.getContentType() : "application/octet-stream",
+                variant == null && isImmutableName(filename));
     }
 
-    // Delete file
+    private static boolean isImmutableName(String filename) {
+        return CONTENT_NAME.matcher(filename).matches() || VERSIONED_NAME.matcher(filename).matches();
+    }
+
+    public boolean isContentAddressed(String filename) {
+        return CONTENT_NAME.matcher(filename).matches();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Reference dari upload yang memanggil storeStream sudah commit (atau gagal)
+    public void releasePending(String filename) {
+        pending.computeIfPresent(filename, (name, uploads) -> uploads > 1 ? uploads - 1 : null);
+    }
+
+    /**
+     * Menjalankan action (cek reference lalu hapus/karantina) hanya jika tidak ada
+     * upload pending untuk file ini, atomik terhadap penandaan di storeStream: upload
+     * dengan isi sama menunggu sampai action selesai, lalu menulis ulang file jika
+     * sudah terhapus. Reference yang dihitung di dalam action sudah mencakup semua
+     * upload yang selesai sebelumnya.
+     *
+     * @return false jika file sedang pending dan action tidak dijalankan
+     */
+    public boolean runIfNotPending(String filename, Runnable action) {
+        boolean[] ran = new boolean[1];
+        pending.compute(filename, (name, uploads) -> {
+            if (uploads == null) {
+                action.run();
+                ran[0] = true;
+            }
+            return uploads;
+        });
+        return ran[0];
+    }
+
+    /**
+     * Delete file beserta variant hasil proses. Pemanggil harus memastikan tidak
+     * ada food lain yang masih memakai file ini dan memanggilnya di dalam
+     * {@link #runIfNotPending(String, Runnable)} (lihat FoodService).
+     *
+     * @return true jika file original terhapus
+     */
     public boolean deleteFile(String filename) {
         try {
-            Path filePath = Paths.get(uploadDir).resolve(filename);
-            return Files.deleteIfExists(filePath);
+            for (CoverVariant variant : CoverVariant.values()) {
+                Files.deleteIfExists(loadVariant(filename, variant));
+            }
+            return Files.deleteIfExists(loadFile(filename));
         } catch (IOException e) {
             return false;
         }
     }
 
-    // Load file
+    public Path getUploadPath() {
+        return Paths.get(uploadDir);
+    }
+
+    // Load file; nama content-addressed berada di upload/ab/cd/, nama lama langsung di upload/
     public Path loadFile(String filename) {
-        return Paths.get(uploadDir).resolve(filename);
+        Path uploadPath = Paths.get(uploadDir);
+        if (CONTENT_NAME.matcher(filename).matches()) {
+            return uploadPath.resolve(filename.substring(0, 2)).resolve(filename.substring(2, 4)).resolve(filename);
+        }
+        return uploadPath.resolve(filename);
+    }
+
+    // Nama file variant: <hash>.png -> <hash>.card.jpg (di direktori yang sama)
+    public String variantFilename(String filename, CoverVariant variant) {
+        int dot = filename.lastIndexOf('.');
+        String base = dot > 0 ? filename.substring(0, dot) : filename;
+        return base + "." + variant.getKey() + ".jpg";
+    }
+
+    public Path loadVariant(String filename, CoverVariant variant) {
+        return loadFile(variantFilename(filename, variant));
     }
 
     // Check file exists
@@ -0,0 +1,34 @@
+package org.delcom.app.services;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.delcom.app.utils.TransactionUtil;
+import org.springframework.stereotype.Component;
+
+/**
+ * Versi data food per user, dinaikkan setiap kali data food user berubah.
+ * Dipakai sebagai bagian key FragmentCache: HTML yang dirender untuk versi
+ * lama tidak pernah dibaca lagi dan terbuang oleh LRU.
+ *
+ * Nilai diambil dari satu counter global agar tetap unik; user yang belum
+ * pernah mengubah data sejak aplikasi start memakai versi 0 (cache juga
+ * kosong saat start, jadi tidak ada HTML lama untuk versi tersebut).
+ */
+@Component
+public class FoodDataVersion {
+    private final AtomicLong sequence = new AtomicLong();
+
+    // userId -> versi terakhir; satu entri per user yang pernah menulis
+    private final ConcurrentHashMap<UUID, Long> versions = new ConcurrentHashMap<>();
+
+    public long get(UUID userId) {
+        return versions.getOrDefault(userId, 0L);
+    }
+
+    // Dinaikkan setelah commit agar render yang membaca data lama tidak tersimpan di versi baru
+    public void bumpAfterCommit(UUID userId) {
+        TransactionUtil.afterCommit(() -> versions.put(userId, sequence.incrementAndGet()));
+    }
+}
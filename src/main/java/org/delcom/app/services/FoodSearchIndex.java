@@ -0,0 +1,325 @@
+package org.delcom.app.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.delcom.app.entities.Food;
+import org.delcom.app.repositories.FoodRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FoodSearchIndex {
+    // Bobot relevansi per field: name > category > description
+    private static final int FIELD_NAME = 1;
+    private static final int FIELD_CATEGORY = 2;
+    private static final int FIELD_DESCRIPTION = 4;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final FoodRepository foodRepository;
+    private final int maxUsers;
+
+    // Index per user dengan urutan akses (LRU), dijaga oleh lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<UUID, UserIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+
+    public FoodSearchIndex(FoodRepository foodRepository,
+            @Value("${app.search.index.max-users:1000}") int maxUsers) {
+        this.foodRepository = foodRepository;
+        this.maxUsers = maxUsers;
+    }
+
+    /**
+     * Mencari food milik user dari index in-memory.
+     *
+     * @return daftar food terurut berdasarkan relevansi, atau null jika index
+     *         belum siap sehingga pemanggil harus fallback ke database
+     */
+    public List<Food> search(UUID userId, String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        UserIndex index = getOrBuild(userId);
+        if (index == null) {
+            return null;
+        }
+        return index.search(terms);
+    }
+
+    // Dipanggil setelah food dibuat/diperbarui (setelah commit)
+    public void onSaved(Food food) {
+        UserIndex index = find(food.getUserId());
+        if (index != null) {
+            index.upsert(food);
+        }
+    }
+
+    // Dipanggil setelah food dihapus (setelah commit)
+    public void onDeleted(UUID userId, UUID foodId) {
+        UserIndex index = find(userId);
+        if (index != null) {
+            index.remove(foodId);
+        }
+    }
+
+    public void invalidate(UUID userId) {
+        lock.lock();
+        try {
+            indexes.remove(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private UserIndex find(UUID userId) {
+        lock.lock();
+        try {
+            return indexes.get(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private UserIndex getOrBuild(UUID userId) {
+        UserIndex index;
+        boolean builder = false;
+
+        lock.lock();
+        try {
+            index = indexes.get(userId);
+            if (index == null) {
+                index = new UserIndex();
+                indexes.put(userId, index);
+                builder = true;
+                evictIfNeeded();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (builder) {
+            try {
+                index.load(foodRepository.findAllByUserId(userId));
+            } catch (RuntimeException e) {
+                invalidate(userId);
+                throw e;
+            }
+        }
+
+        // Saat index masih dibangun oleh request lain, gunakan database
+        return index.isReady() ? index : null;
+    }
+
+    private void evictIfNeeded() {
+        Iterator<UUID> it = indexes.keySet().iterator();
+        while (indexes.size() > maxUsers && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    // Normalisasi Indonesia/Inggris: buang diakritik lalu lowercase locale-netral
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        for (String token : SEPARATOR.split(normalize(text))) {
+            if (!token.isEmpty() && !tokens.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static int fieldWeight(int fields) {
+        if ((fields & FIELD_NAME) != 0) {
+            return 8;
+        }
+        if ((fields & FIELD_CATEGORY) != 0) {
+            return 4;
+        }
+        return 2;
+    }
+
+    private static final class UserIndex {
+        private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
+        private final Map<UUID, Food> foods = new HashMap<>();
+        // token -> (foodId -> bitmask field tempat token muncul)
+        private final TreeMap<String, Map<UUID, Integer>> postings = new TreeMap<>();
+        private final Map<UUID, Set<String>> tokensByFood = new HashMap<>();
+        // Perubahan yang masuk selama index dibangun, diputar ulang setelah load
+        private final List<Runnable> pending = new ArrayList<>();
+        private boolean ready;
+
+        boolean isReady() {
+            rwLock.readLock().lock();
+            try {
+                return ready;
+            } finally {
+                rwLock.readLock().unlock();
+            }
+        }
+
+        void load(List<Food> loaded) {
+            rwLock.writeLock().lock();
+            try {
+                for (Food food : loaded) {
+                    doUpsert(food);
+                }
+                for (Runnable op : pending) {
+                    op.run();
+                }
+                pending.clear();
+                ready = true;
+            } finally {
+                rwLock.writeLock().unlock();
+            }
+        }
+
+        void upsert(Food food) {
+            rwLock.writeLock().lock();
+            try {
+                if (ready) {
+                    doUpsert(food);
+                } else {
+                    pending.add(() -> doUpsert(food));
+                }
+            } finally {
+                rwLock.writeLock().unlock();
+            }
+        }
+
+        void remove(UUID foodId) {
+            rwLock.writeLock().lock();
+            try {
+                if (ready) {
+                    doRemove(foodId);
+                } else {
+                    pending.add(() -> doRemove(foodId));
+                }
+            } finally {
+                rwLock.writeLock().unlock();
+            }
+        }
+
+        List<Food> search(List<String> terms) {
+            rwLock.readLock().lock();
+            try {
+                Map<UUID, Integer> scores = null;
+                for (String term : terms) {
+                    Map<UUID, Integer> termScores = scoreTerm(term);
+                    if (scores == null) {
+                        scores = termScores;
+                    } else {
+                        // Semua kata kunci harus cocok (AND)
+                        scores.keySet().retainAll(termScores.keySet());
+                        for (Map.Entry<UUID, Integer> entry : scores.entrySet()) {
+                            entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                        }
+                    }
+                    if (scores.isEmpty()) {
+                        return new ArrayList<>();
+                    }
+                }
+
+                Map<UUID, Integer> finalScores = scores;
+                List<Food> results = new ArrayList<>(finalScores.size());
+                for (UUID id : finalScores.keySet()) {
+                    results.add(foods.get(id));
+                }
+                results.sort(Comparator
+                        .comparing((Food f) -> finalScores.get(f.getId()), Comparator.reverseOrder())
+                        .thenComparing(Food::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+                return results;
+            } finally {
+                rwLock.readLock().unlock();
+            }
+        }
+
+        // Skor satu kata kunci: cocok penuh > prefix > substring, dikali bobot field
+        private Map<UUID, Integer> scoreTerm(String term) {
+            Map<UUID, Integer> result = new HashMap<>();
+            for (Map.Entry<String, Map<UUID, Integer>> posting : postings.entrySet()) {
+                String token = posting.getKey();
+                int matchWeight;
+                if (token.equals(term)) {
+                    matchWeight = 3;
+                } else if (token.startsWith(term)) {
+                    matchWeight = 2;
+                } else if (token.contains(term)) {
+                    matchWeight = 1;
+                } else {
+                    continue;
+                }
+                for (Map.Entry<UUID, Integer> hit : posting.getValue().entrySet()) {
+                    int score = matchWeight * fieldWeight(hit.getValue());
+                    result.merge(hit.getKey(), score, Math::max);
+                }
+            }
+            return result;
+        }
+
+        private void doUpsert(Food food) {
+            doRemove(food.getId());
+            foods.put(food.getId(), food);
+
+            Map<String, Integer> fieldsByToken = new HashMap<>();
+            addTokens(fieldsByToken, food.getName(), FIELD_NAME);
+            addTokens(fieldsByToken, food.getCategory(), FIELD_CATEGORY);
+            addTokens(fieldsByToken, food.getDescription(), FIELD_DESCRIPTION);
+
+            for (Map.Entry<String, Integer> entry : fieldsByToken.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>())
+                        .put(food.getId(), entry.getValue());
+            }
+            tokensByFood.put(food.getId(), new HashSet<>(fieldsByToken.keySet()));
+        }
+
+        private void doRemove(UUID foodId) {
+            foods.remove(foodId);
+            Set<String> tokens = tokensByFood.remove(foodId);
+            if (tokens == null) {
+                return;
+            }
+            for (String token : tokens) {
+                Map<UUID, Integer> hits = postings.get(token);
+                if (hits != null) {
+                    hits.remove(foodId);
+                    if (hits.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            }
+        }
+
+        private static void addTokens(Map<String, Integer> fieldsByToken, String text, int field) {
+            for (String token : tokenize(text)) {
+                fieldsByToken.merge(token, field, (a, b) -> a | b);
+            }
+        }
+    }
+}
@@ -1,24 +1,44 @@
 package org.delcom.app.services;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.delcom.app.dto.FoodCursor;
+import org.delcom.app.dto.FoodPage;
 import org.delcom.app.entities.Food;
+import org.delcom.app.entities.NutritionRollup;
 import org.delcom.app.repositories.FoodRepository;
+import org.delcom.app.services.NutritionRollupService.NutritionValues;
+import org.delcom.app.utils.TransactionUtil;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class FoodService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final FoodRepository foodRepository;
     private final FileStorageService fileStorageService;
-
-    public FoodService(FoodRepository foodRepository, FileStorageService fileStorageService) {
+    private final FoodSearchIndex foodSearchIndex;
+    private final NutritionRollupService nutritionRollupService;
+    private final CoverMemoryCache coverMemoryCache;
+    private final FoodDataVersion foodDataVersion;
+
+    public FoodService(FoodRepository foodRepository, FileStorageService fileStorageService,
+                       FoodSearchIndex foodSearchIndex, NutritionRollupService nutritionRollupService,
+                       CoverMemoryCache coverMemoryCache, FoodDataVersion foodDataVersion) {
         this.foodRepository = foodRepository;
         this.fileStorageService = fileStorageService;
+        this.foodSearchIndex = foodSearchIndex;
+        this.nutritionRollupService = nutritionRollupService;
+        this.coverMemoryCache = coverMemoryCache;
+        this.foodDataVersion = foodDataVersion;
     }
 
     @Transactional
@@ -27,22 +47,71 @@ public class FoodService {
                           String servingSize, String category, String description) {
         Food food = new Food(userId, name, calories, protein, carbohydrates, 
                            fat, fiber, servingSize, category, description);
-        return foodRepository.save(food);
+        Food saved = foodRepository.save(food);
+        nutritionRollupService.onCreated(saved);
+        TransactionUtil.afterCommit(() -> foodSearchIndex.onSaved(saved));
+        foodDataVersion.bumpAfterCommit(userId);
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Food> getAllFoods(UUID userId, String search) {
         if (search != null && !search.trim().isEmpty()) {
+            // Gunakan inverted index, fallback ke database jika index belum siap
+            List<Food> hits = foodSearchIndex.search(userId, search);
+            if (hits != null) {
+                return hits;
+            }
             return foodRepository.findByKeyword(userId, search);
         }
         return foodRepository.findAllByUserId(userId);
     }
 
+    @Transactional(readOnly = true)
     public List<Food> getFoodsByCategory(UUID userId, String category) {
         return foodRepository.findByUserIdAndCategory(userId, category);
     }
 
+    // Keyset pagination berdasarkan (createdAt, id), category opsional
+    @Transactional(readOnly = true)
+    public FoodPage getFoodsPage(UUID userId, String category, FoodCursor after, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Ambil satu baris ekstra untuk mengetahui apakah masih ada halaman berikutnya
+        Limit fetch = Limit.of(size + 1);
+        boolean byCategory = category != null && !category.isBlank();
+
+        List<Food> rows;
+        if (after == null) {
+            rows = byCategory
+                    ? foodRepository.findPageByUserIdAndCategory(userId, category, fetch)
+                    : foodRepository.findPageByUserId(userId, fetch);
+        } else {
+            rows = byCategory
+                    ? foodRepository.findPageByUserIdAndCategoryAfter(userId, category,
+                            after.getCreatedAt(), after.getId(), fetch)
+                    : foodRepository.findPageByUserIdAfter(userId, after.getCreatedAt(), after.getId(), fetch);
+        }
+
+        if (rows.size() <= size) {
+            return new FoodPage(rows, null);
+        }
+        List<Food> page = new ArrayList<>(rows.subList(0, size));
+        return new FoodPage(page, FoodCursor.of(page.get(size - 1)).encode());
+    }
+
+    @Transactional(readOnly = true)
+    public long countFoods(UUID userId) {
+        return foodRepository.countByUserId(userId);
+    }
+
+    @Transactional(readOnly = true)
     public Food getFoodById(UUID userId, UUID id) {
-        return foodRepository.findByUserIdAndId(userId, id).orElse(null);
+        return findOwned(userId, id).orElse(null);
+    }
+
+    // Lookup by id agar terlayani second-level cache (region foods), lalu cek pemilik
+    private Optional<Food> findOwned(UUID userId, UUID id) {
+        return foodRepository.findById(id).filter(food -> userId.equals(food.getUserId()));
     }
 
     @Transactional
@@ -50,8 +119,9 @@ public class FoodService {
                           Double protein, Double carbohydrates, Double fat,
                           Double fiber, String servingSize, String category,
                           String description) {
-        Food food = foodRepository.findByUserIdAndId(userId, id).orElse(null);
+        Food food = findOwned(userId, id).orElse(null);
         if (food != null) {
+            NutritionValues before = NutritionValues.of(food);
             food.setName(name);
             food.setCalories(calories);
             food.setProtein(protein);
@@ -61,94 +131,113 @@ public class FoodService {
             food.setServingSize(servingSize);
             food.setCategory(category);
             food.setDescription(description);
-            return foodRepository.save(food);
+            Food saved = foodRepository.save(food);
+            nutritionRollupService.onUpdated(before, saved);
+            TransactionUtil.afterCommit(() -> foodSearchIndex.onSaved(saved));
+            foodDataVersion.bumpAfterCommit(userId);
+            return saved;
         }
         return null;
     }
 
     @Transactional
     public boolean deleteFood(UUID userId, UUID id) {
-        Food food = foodRepository.findByUserIdAndId(userId, id).orElse(null);
+        Food food = findOwned(userId, id).orElse(null);
         if (food == null) {
             return false;
         }
 
-        // Hapus cover jika ada
-        if (food.getCover() != null) {
-            fileStorageService.deleteFile(food.getCover());
-        }
-
         foodRepository.deleteById(id);
+        // Hapus cover jika tidak dipakai food lain
+        releaseCover(food.getCover());
+        nutritionRollupService.onDeleted(food);
+        TransactionUtil.afterCommit(() -> foodSearchIndex.onDeleted(userId, id));
+        foodDataVersion.bumpAfterCommit(userId);
         return true;
     }
 
     @Transactional
     public Food updateCover(UUID userId, UUID foodId, String coverFilename) {
-        Optional<Food> foodOpt = foodRepository.findByUserIdAndId(userId, foodId);
+        Optional<Food> foodOpt = findOwned(userId, foodId);
         if (foodOpt.isPresent()) {
             Food food = foodOpt.get();
 
-            // Hapus file cover lama jika ada
-            if (food.getCover() != null) {
-                fileStorageService.deleteFile(food.getCover());
-            }
-
+            String oldCover = food.getCover();
             food.setCover(coverFilename);
-            return foodRepository.save(food);
+            Food saved = foodRepository.save(food);
+
+            // Hapus file cover lama jika tidak dipakai food lain (nama sama berarti isi sama)
+            if (oldCover != null && !oldCover.equals(coverFilename)) {
+                releaseCover(oldCover);
+            }
+            TransactionUtil.afterCommit(() -> foodSearchIndex.onSaved(saved));
+            foodDataVersion.bumpAfterCommit(userId);
+            return saved;
         }
         return null;
     }
 
-    // Method untuk Chart Data
+    /**
+     * Melepas satu reference ke file cover. File dihapus setelah commit hanya
+     * jika tidak ada food lain (milik user mana pun) yang masih memakainya dan
+     * tidak ada upload dengan isi sama yang belum commit; file yang tertinggal
+     * dibersihkan oleh UploadGarbageCollector.
+     */
+    private void releaseCover(String filename) {
+        if (filename == null) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> fileStorageService.runIfNotPending(filename, () -> {
+            if (foodRepository.countByCover(filename) == 0) {
+                coverMemoryCache.invalidate(filename);
+                fileStorageService.deleteFile(filename);
+            }
+        }));
+    }
+
+    // Method untuk Chart Data, dibaca dari nutrition rollup (O(jumlah kategori))
+    @Transactional(readOnly = true)
     public Map<String, Object> getNutritionStatistics(UUID userId) {
-        Map<String, Object> statistics = new HashMap<>();
+        List<NutritionRollup> rollups = nutritionRollupService.getRollups(userId);
+        if (rollups.isEmpty() && foodRepository.countByUserId(userId) > 0) {
+            // Rollup belum pernah dibuat untuk user ini (data lama), bangun sekali
+            rollups = nutritionRollupService.rebuild(userId);
+        }
 
-        // Total kalori per kategori
-        List<Object[]> caloriesByCategory = foodRepository.getTotalCaloriesByCategory(userId);
+        Map<String, Object> statistics = new HashMap<>();
         Map<String, Double> caloriesMap = new HashMap<>();
-        for (Object[] result : caloriesByCategory) {
-            // PERBAIKAN: Gunakan Number.doubleValue() untuk menghindari ClassCastException
-            if (result[0] instanceof String && result[1] instanceof Number) {
-                caloriesMap.put((String) result[0], ((Number) result[1]).doubleValue());
-            } else {
-                 // Handle kasus jika data tidak sesuai yang diharapkan (misalnya log error)
-            }
+        Map<String, Long> countMap = new HashMap<>();
+        long totalCount = 0;
+        double totalProtein = 0;
+        double totalCarbohydrates = 0;
+        double totalFat = 0;
+        double totalFiber = 0;
+
+        for (NutritionRollup rollup : rollups) {
+            // Total kalori dan jumlah makanan per kategori
+            caloriesMap.put(rollup.getCategory(), rollup.getTotalCalories());
+            countMap.put(rollup.getCategory(), rollup.getFoodCount());
+
+            totalCount += rollup.getFoodCount();
+            totalProtein += rollup.getTotalProtein();
+            totalCarbohydrates += rollup.getTotalCarbohydrates();
+            totalFat += rollup.getTotalFat();
+            totalFiber += rollup.getTotalFiber();
         }
         statistics.put("caloriesByCategory", caloriesMap);
 
-        // Rata-rata nutrisi
-        List<Object[]> avgNutrition = foodRepository.getAverageNutrition(userId);
-        if (!avgNutrition.isEmpty() && avgNutrition.get(0)[0] != null) {
+        // Rata-rata nutrisi dari seluruh food user
+        if (totalCount > 0) {
             Map<String, Double> avgMap = new HashMap<>();
-            // PERBAIKAN: Gunakan Number.doubleValue() untuk menghindari ClassCastException
-            if (avgNutrition.get(0)[0] instanceof Number) {
-                avgMap.put("protein", ((Number) avgNutrition.get(0)[0]).doubleValue());
-            }
-            if (avgNutrition.get(0)[1] instanceof Number) {
-                avgMap.put("carbohydrates", ((Number) avgNutrition.get(0)[1]).doubleValue());
-            }
-            if (avgNutrition.get(0)[2] instanceof Number) {
-                avgMap.put("fat", ((Number) avgNutrition.get(0)[2]).doubleValue());
-            }
-            if (avgNutrition.get(0)[3] instanceof Number) {
-                avgMap.put("fiber", ((Number) avgNutrition.get(0)[3]).doubleValue());
-            }
+            avgMap.put("protein", totalProtein / totalCount);
+            avgMap.put("carbohydrates", totalCarbohydrates / totalCount);
+            avgMap.put("fat", totalFat / totalCount);
+            avgMap.put("fiber", totalFiber / totalCount);
             statistics.put("averageNutrition", avgMap);
         }
 
-        // Jumlah makanan per kategori
-        List<Object[]> countByCategory = foodRepository.getCountByCategory(userId);
-        Map<String, Long> countMap = new HashMap<>();
-        for (Object[] result : countByCategory) {
-            // PERBAIKAN: Gunakan Number.longValue() untuk menghindari ClassCastException
-            if (result[0] instanceof String && result[1] instanceof Number) {
-                countMap.put((String) result[0], ((Number) result[1]).longValue());
-            } else {
-                 // Handle kasus jika data tidak sesuai yang diharapkan
-            }
-        }
         statistics.put("countByCategory", countMap);
 
         return statistics;
     }
-}
\ No newline at end of file
+}
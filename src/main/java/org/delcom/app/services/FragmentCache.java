@@ -0,0 +1,112 @@
+package org.delcom.app.services;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.delcom.app.utils.SizeBoundedLruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.IWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Cache HTML hasil render fragment Thymeleaf per user (grid food, panel
+ * statistik). Key berisi userId dan FoodDataVersion user tersebut, sehingga
+ * setiap perubahan data food otomatis membuat entri lama tidak terpakai.
+ * Dibatasi ukuran total; saat penuh, entri yang paling lama tidak diakses dibuang.
+ *
+ * Fragment yang di-cache tidak boleh berisi data per request (CSRF token,
+ * pesan flash, form) karena HTML-nya dipakai ulang apa adanya.
+ */
+@Component
+public class FragmentCache {
+    private final ITemplateEngine templateEngine;
+    private final FoodDataVersion foodDataVersion;
+    private final boolean enabled;
+
+    // Key: "<userId>|<version>|<locale>|<name>"; ukuran diperkirakan 2 byte per karakter
+    // (UTF-16, template berisi emoji)
+    private final SizeBoundedLruCache<String, String> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public FragmentCache(ITemplateEngine templateEngine, FoodDataVersion foodDataVersion,
+            @Value("${app.fragment-cache.enabled:true}") boolean enabled,
+            @Value("${app.fragment-cache.max-size:16MB}") DataSize maxSize,
+            MetricsRegistry metricsRegistry) {
+        this.templateEngine = templateEngine;
+        this.foodDataVersion = foodDataVersion;
+        this.enabled = enabled;
+        this.entries = new SizeBoundedLruCache<>(maxSize.toBytes(), html -> html.length() * 2L);
+
+        metricsRegistry.registerCounter("fragment_cache_hits", hits::sum);
+        metricsRegistry.registerCounter("fragment_cache_misses", misses::sum);
+        metricsRegistry.registerGauge("fragment_cache_hit_ratio", this::getHitRatio);
+        metricsRegistry.registerCounter("fragment_cache_evictions", entries::getEvictions);
+        metricsRegistry.registerGauge("fragment_cache_bytes", entries::getBytes);
+        metricsRegistry.registerGauge("fragment_cache_entries", entries::size);
+    }
+
+    /**
+     * Mengambil HTML fragment dari cache, atau merendernya jika belum ada.
+     *
+     * @param name nama fragment beserta parameternya (misalnya "foods?category=Buah"),
+     *             null untuk render tanpa cache (misalnya hasil pencarian)
+     * @param template nama template, misalnya "pages/foods/list"
+     * @param fragment th:fragment yang dirender dari template tersebut
+     * @param loader mengisi variabel fragment; hanya dipanggil saat miss. Exception dari
+     *               loader diteruskan ke pemanggil dan tidak ada yang disimpan
+     * @return HTML fragment, ditulis ke halaman dengan th:utext
+     */
+    public String render(UUID userId, String name, String template, String fragment,
+            HttpServletRequest request, HttpServletResponse response, Consumer<Map<String, Object>> loader) {
+        Locale locale = RequestContextUtils.getLocale(request);
+        if (!enabled || name == null) {
+            return process(template, fragment, request, response, locale, loader);
+        }
+
+        // Versi dibaca sebelum data dimuat: jika ada tulis di tengah render, hasilnya
+        // tersimpan di versi lama dan tidak akan pernah dibaca
+        long version = foodDataVersion.get(userId);
+        String key = userId + "|" + version + "|" + locale.toLanguageTag() + "|" + name;
+        String cached = entries.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        String html = process(template, fragment, request, response, locale, loader);
+        entries.put(key, html);
+        return html;
+    }
+
+    private String process(String template, String fragment, HttpServletRequest request,
+            HttpServletResponse response, Locale locale, Consumer<Map<String, Object>> loader) {
+        Map<String, Object> variables = new HashMap<>();
+        loader.accept(variables);
+        // Web context diperlukan agar @{...} berisi context path dan melewati response.encodeURL
+        IWebExchange exchange = JakartaServletWebApplication.buildApplication(request.getServletContext())
+                .buildExchange(request, response);
+        return templateEngine.process(template, Set.of(fragment), new WebContext(exchange, locale, variables));
+    }
+
+    public double getHitRatio() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+}
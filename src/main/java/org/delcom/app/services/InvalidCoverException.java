@@ -0,0 +1,15 @@
+package org.delcom.app.services;
+
+// Dilempar saat isi upload cover ditolak; dipetakan ke HTTP 413 (terlalu besar) atau 400
+public class InvalidCoverException extends RuntimeException {
+    private final boolean tooLarge;
+
+    public InvalidCoverException(String message, boolean tooLarge) {
+        super(message);
+        this.tooLarge = tooLarge;
+    }
+
+    public boolean isTooLarge() {
+        return tooLarge;
+    }
+}
@@ -0,0 +1,117 @@
+package org.delcom.app.services;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import org.delcom.app.utils.LatencyHistogram;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry metrics in-memory: histogram latency dan counter status per route
+ * template (mis. "GET /api/foods/{id}"), serta gauge dan counter yang
+ * didaftarkan oleh komponen lain. Pencatatan di jalur request tidak memakai lock.
+ */
+@Component
+public class MetricsRegistry {
+    // Request yang tidak cocok dengan handler digabung agar jumlah route tetap terbatas
+    public static final String UNMATCHED_ROUTE = "UNMATCHED";
+
+    private static final String[] STATUS_CLASSES = { "1xx", "2xx", "3xx", "4xx", "5xx" };
+
+    public record Route(String method, String uri) implements Comparable<Route> {
+
+        @Override
+        public int compareTo(Route other) {
+            int result = uri.compareTo(other.uri);
+            return result != 0 ? result : method.compareTo(other.method);
+        }
+    }
+
+    public static final class RouteMetrics {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final AtomicLongArray statusCounts = new AtomicLongArray(STATUS_CLASSES.length);
+
+        void record(int status, long nanos) {
+            histogram.recordNanos(nanos);
+            int statusClass = status / 100 - 1;
+            if (statusClass >= 0 && statusClass < STATUS_CLASSES.length) {
+                statusCounts.incrementAndGet(statusClass);
+            }
+        }
+
+        public LatencyHistogram.Snapshot snapshot() {
+            return histogram.snapshot();
+        }
+
+        // Counter per kelas status, hanya kelas yang pernah terjadi
+        public Map<String, Long> statusCounts() {
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (int i = 0; i < STATUS_CLASSES.length; i++) {
+                long count = statusCounts.get(i);
+                if (count > 0) {
+                    result.put(STATUS_CLASSES[i], count);
+                }
+            }
+            return result;
+        }
+    }
+
+    private final ConcurrentHashMap<Route, RouteMetrics> routes = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Supplier<Number>> gauges = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Supplier<Number>> counters = new ConcurrentSkipListMap<>();
+
+    public void recordRequest(String method, String routePattern, int status, long nanos) {
+        Route route = new Route(method, routePattern != null ? routePattern : UNMATCHED_ROUTE);
+        RouteMetrics metrics = routes.get(route);
+        if (metrics == null) {
+            metrics = routes.computeIfAbsent(route, r -> new RouteMetrics());
+        }
+        metrics.record(status, nanos);
+    }
+
+    /**
+     * Mendaftarkan gauge yang dibaca saat endpoint metrics dipanggil.
+     *
+     * @param name nama snake_case, dipakai apa adanya di format Prometheus
+     */
+    public void registerGauge(String name, Supplier<Number> supplier) {
+        gauges.put(name, supplier);
+    }
+
+    /**
+     * Mendaftarkan counter: nilai kumulatif yang hanya naik sejak aplikasi start
+     * (hit, miss, jumlah file, byte yang dibebaskan). Diekspor sebagai counter
+     * Prometheus agar rate()/increase() benar saat aplikasi restart.
+     *
+     * @param name nama snake_case tanpa akhiran _total (ditambahkan di format Prometheus)
+     */
+    public void registerCounter(String name, Supplier<Number> supplier) {
+        counters.put(name, supplier);
+    }
+
+    // Snapshot route terurut berdasarkan uri lalu method
+    public Map<Route, RouteMetrics> getRoutes() {
+        return new TreeMap<>(routes);
+    }
+
+    public Map<String, Number> getGauges() {
+        return read(gauges);
+    }
+
+    public Map<String, Number> getCounters() {
+        return read(counters);
+    }
+
+    private static Map<String, Number> read(Map<String, Supplier<Number>> suppliers) {
+        Map<String, Number> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Supplier<Number>> entry : suppliers.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+        return result;
+    }
+}
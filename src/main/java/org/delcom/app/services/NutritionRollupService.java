@@ -0,0 +1,186 @@
+package org.delcom.app.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.delcom.app.entities.Food;
+import org.delcom.app.entities.NutritionRollup;
+import org.delcom.app.repositories.FoodRepository;
+import org.delcom.app.repositories.NutritionRollupRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class NutritionRollupService {
+    private static final double TOLERANCE = 1e-6;
+
+    private final NutritionRollupRepository rollupRepository;
+    private final FoodRepository foodRepository;
+    private final FoodDataVersion foodDataVersion;
+
+    public NutritionRollupService(NutritionRollupRepository rollupRepository, FoodRepository foodRepository,
+                                  FoodDataVersion foodDataVersion) {
+        this.rollupRepository = rollupRepository;
+        this.foodRepository = foodRepository;
+        this.foodDataVersion = foodDataVersion;
+    }
+
+    // Snapshot nilai nutrisi food sebelum diubah
+    public record NutritionValues(String category, double calories, double protein,
+                                  double carbohydrates, double fat, double fiber) {
+
+        public static NutritionValues of(Food food) {
+            return new NutritionValues(food.getCategory(), food.getCalories(), food.getProtein(),
+                    food.getCarbohydrates(), food.getFat(), food.getFiber());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<NutritionRollup> getRollups(UUID userId) {
+        return rollupRepository.findAllByUserId(userId);
+    }
+
+    // Dipanggil di dalam transaksi createFood
+    @Transactional
+    public void onCreated(Food food) {
+        NutritionValues values = NutritionValues.of(food);
+        apply(food.getUserId(), values.category(), 1, values, 1);
+    }
+
+    // Dipanggil di dalam transaksi updateFood
+    @Transactional
+    public void onUpdated(NutritionValues before, Food food) {
+        NutritionValues after = NutritionValues.of(food);
+        if (before.category().equals(after.category())) {
+            NutritionValues delta = new NutritionValues(after.category(),
+                    after.calories() - before.calories(),
+                    after.protein() - before.protein(),
+                    after.carbohydrates() - before.carbohydrates(),
+                    after.fat() - before.fat(),
+                    after.fiber() - before.fiber());
+            apply(food.getUserId(), after.category(), 0, delta, 1);
+            return;
+        }
+
+        apply(food.getUserId(), before.category(), -1, before, -1);
+        apply(food.getUserId(), after.category(), 1, after, 1);
+    }
+
+    // Dipanggil di dalam transaksi deleteFood
+    @Transactional
+    public void onDeleted(Food food) {
+        NutritionValues values = NutritionValues.of(food);
+        apply(food.getUserId(), values.category(), -1, values, -1);
+    }
+
+    private void apply(UUID userId, String category, long count, NutritionValues values, int sign) {
+        int updated = rollupRepository.applyDelta(userId, category, count,
+                sign * values.calories(),
+                sign * values.protein(),
+                sign * values.carbohydrates(),
+                sign * values.fat(),
+                sign * values.fiber());
+
+        // User tanpa rollup sama sekali (data sebelum rollup ada) tidak diberi baris parsial:
+        // getNutritionStatistics membangun seluruh rollup-nya dari tabel foods saat pertama dibaca
+        if (updated == 0 && count > 0 && rollupRepository.existsByUserId(userId)) {
+            rollupRepository.insertEmptyIfAbsent(UUID.randomUUID(), userId, category);
+            rollupRepository.applyDelta(userId, category, count,
+                    sign * values.calories(),
+                    sign * values.protein(),
+                    sign * values.carbohydrates(),
+                    sign * values.fat(),
+                    sign * values.fiber());
+        }
+        // Jika baris tidak ditemukan saat pengurangan, drift diperbaiki oleh verify/rebuild
+
+        if (count < 0) {
+            rollupRepository.deleteEmptyByUserId(userId);
+        }
+    }
+
+    // Menghitung ulang rollup user dari tabel foods. Transaksi sendiri (ke primary)
+    // karena bisa dipanggil dari transaksi read-only getNutritionStatistics.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<NutritionRollup> rebuild(UUID userId) {
+        rollupRepository.deleteByUserId(userId);
+
+        // Insert-if-absent lalu update absolut: rebuild bersamaan untuk user yang sama
+        // (misalnya dua request statistik pertama) tidak melanggar unique constraint
+        for (NutritionRollup expected : computeFromFoods(userId).values()) {
+            rollupRepository.insertEmptyIfAbsent(UUID.randomUUID(), userId, expected.getCategory());
+            rollupRepository.setTotals(userId, expected.getCategory(), expected.getFoodCount(),
+                    expected.getTotalCalories(), expected.getTotalProtein(), expected.getTotalCarbohydrates(),
+                    expected.getTotalFat(), expected.getTotalFiber());
+        }
+        // Panel statistik yang sudah dirender mungkin berasal dari rollup yang drift
+        foodDataVersion.bumpAfterCommit(userId);
+        return rollupRepository.findAllByUserId(userId);
+    }
+
+    /**
+     * Membandingkan rollup tersimpan dengan hasil agregasi tabel foods
+     *
+     * @return daftar kategori yang tidak sesuai (kosong jika tidak ada drift)
+     */
+    @Transactional(readOnly = true)
+    public List<String> verify(UUID userId) {
+        Map<String, NutritionRollup> expected = computeFromFoods(userId);
+        Map<String, NutritionRollup> actual = new HashMap<>();
+        for (NutritionRollup rollup : rollupRepository.findAllByUserId(userId)) {
+            actual.put(rollup.getCategory(), rollup);
+        }
+
+        Set<String> categories = new HashSet<>(expected.keySet());
+        categories.addAll(actual.keySet());
+
+        List<String> drifted = new ArrayList<>();
+        for (String category : categories) {
+            if (!matches(expected.get(category), actual.get(category))) {
+                drifted.add(category);
+            }
+        }
+        return drifted;
+    }
+
+    private Map<String, NutritionRollup> computeFromFoods(UUID userId) {
+        Map<String, NutritionRollup> result = new HashMap<>();
+        for (Object[] row : foodRepository.getNutritionTotalsByCategory(userId)) {
+            String category = (String) row[0];
+            result.put(category, new NutritionRollup(userId, category,
+                    toLong(row[1]), toDouble(row[2]), toDouble(row[3]),
+                    toDouble(row[4]), toDouble(row[5]), toDouble(row[6])));
+        }
+        return result;
+    }
+
+    private static boolean matches(NutritionRollup expected, NutritionRollup actual) {
+        if (expected == null || actual == null) {
+            return false;
+        }
+        return expected.getFoodCount() == actual.getFoodCount()
+                && close(expected.getTotalCalories(), actual.getTotalCalories())
+                && close(expected.getTotalProtein(), actual.getTotalProtein())
+                && close(expected.getTotalCarbohydrates(), actual.getTotalCarbohydrates())
+                && close(expected.getTotalFat(), actual.getTotalFat())
+                && close(expected.getTotalFiber(), actual.getTotalFiber());
+    }
+
+    private static boolean close(double a, double b) {
+        return Math.abs(a - b) <= TOLERANCE * Math.max(1.0, Math.abs(a));
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number number ? number.doubleValue() : 0.0;
+    }
+}
@@ -0,0 +1,9 @@
+package org.delcom.app.services;
+
+// Dilempar saat antrean hashing password penuh; dipetakan ke HTTP 503
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
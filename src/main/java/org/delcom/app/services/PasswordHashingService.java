@@ -0,0 +1,149 @@
+package org.delcom.app.services;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * PasswordEncoder yang menjalankan BCrypt di thread pool CPU terpisah dengan
+ * antrean terbatas, sehingga lonjakan login tidak menghabiskan worker Tomcat.
+ * Jika antrean penuh, {@link PasswordHashingBusyException} dilempar segera.
+ */
+@Service
+public class PasswordHashingService implements PasswordEncoder, DisposableBean {
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0L);
+
+    public PasswordHashingService(
+            @Value("${app.security.bcrypt-strength:10}") int strength,
+            @Value("${app.security.hashing.threads:0}") int threads,
+            @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.hashing.timeout:5s}") Duration timeout,
+            MetricsRegistry metricsRegistry) {
+        this.bcrypt = new BCryptPasswordEncoder(strength);
+        this.timeoutNanos = timeout.toNanos();
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        metricsRegistry.registerGauge("password_hashing_queue_depth", this::getQueueDepth);
+        metricsRegistry.registerGauge("password_hashing_active", this::getActiveCount);
+        metricsRegistry.registerCounter("password_hashing_completed", this::getCompletedCount);
+        metricsRegistry.registerCounter("password_hashing_rejected", this::getRejectedCount);
+        metricsRegistry.registerGauge("password_hashing_latency_avg_ms", this::getAverageLatencyMillis);
+        metricsRegistry.registerGauge("password_hashing_latency_max_ms", this::getMaxLatencyMillis);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> bcrypt.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> bcrypt.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return bcrypt.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    completed.increment();
+                    totalNanos.add(elapsed);
+                    maxNanos.accumulate(elapsed);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException("Server sedang sibuk, silakan coba lagi");
+        }
+
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingBusyException("Server sedang sibuk, silakan coba lagi");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Proses hashing password dibatalkan");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    // Metrics
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public double getAverageLatencyMillis() {
+        long count = completed.sum();
+        return count == 0 ? 0.0 : totalNanos.sum() / (double) count / 1_000_000.0;
+    }
+
+    public double getMaxLatencyMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+}
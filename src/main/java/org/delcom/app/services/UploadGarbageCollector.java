@@ -0,0 +1,353 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.delcom.app.repositories.FoodRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Rekonsiliasi direktori upload dengan kolom Food.cover. File yang tidak lagi
+ * direferensikan (rollback, crash, atau delete yang gagal) dipindah ke
+ * karantina lalu dihapus setelah masa retensi.
+ *
+ * Setiap run hanya memproses sebagian shard (ab/cd) dan melanjutkan dari
+ * posisi terakhir pada run berikutnya, dengan laju file per detik dibatasi.
+ */
+@Service
+public class UploadGarbageCollector {
+    private static final String QUARANTINE_DIR = ".quarantine";
+    private static final Pattern SHARD_NAME = Pattern.compile("^[0-9a-f]{2}$");
+    private static final Pattern VARIANT_NAME = Pattern.compile("^(.+)\\.(thumb|card|full)\\.jpg$");
+
+    public record Report(long scannedFiles, long orphanFiles, long reclaimedBytes, long quarantinedBytes,
+            boolean cycleComplete) {
+    }
+
+    private final FileStorageService fileStorageService;
+    private final FoodRepository foodRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxFilesPerRun;
+    private final int maxFilesPerSecond;
+    private final Duration minAge;
+    private final boolean quarantine;
+    private final Duration quarantineRetention;
+
+    // Shard terakhir yang selesai diproses; null berarti siklus baru dimulai dari root
+    private String cursor;
+
+    private final LongAdder scanned = new LongAdder();
+    private final LongAdder orphans = new LongAdder();
+    private final LongAdder reclaimedBytes = new LongAdder();
+    private final LongAdder quarantinedBytes = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public UploadGarbageCollector(FileStorageService fileStorageService, FoodRepository foodRepository,
+            @Value("${app.upload.gc.enabled:true}") boolean enabled,
+            @Value("${app.upload.gc.batch-size:200}") int batchSize,
+            @Value("${app.upload.gc.max-files-per-run:5000}") int maxFilesPerRun,
+            @Value("${app.upload.gc.max-files-per-second:200}") int maxFilesPerSecond,
+            @Value("${app.upload.gc.min-age:1h}") Duration minAge,
+            @Value("${app.upload.gc.quarantine:true}") boolean quarantine,
+            @Value("${app.upload.gc.quarantine-retention:7d}") Duration quarantineRetention,
+            MetricsRegistry metricsRegistry) {
+        this.fileStorageService = fileStorageService;
+        this.foodRepository = foodRepository;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxFilesPerRun = Math.max(1, maxFilesPerRun);
+        this.maxFilesPerSecond = Math.max(1, maxFilesPerSecond);
+        this.minAge = minAge;
+        this.quarantine = quarantine;
+        this.quarantineRetention = quarantineRetention;
+
+        metricsRegistry.registerCounter("upload_gc_scanned_files", scanned::sum);
+        metricsRegistry.registerCounter("upload_gc_orphan_files", orphans::sum);
+        metricsRegistry.registerCounter("upload_gc_reclaimed_bytes", reclaimedBytes::sum);
+        metricsRegistry.registerCounter("upload_gc_quarantined_bytes", quarantinedBytes::sum);
+        metricsRegistry.registerCounter("upload_gc_errors", errors::sum);
+    }
+
+    @Scheduled(initialDelayString = "${app.upload.gc.initial-delay:5m}",
+            fixedDelayString = "${app.upload.gc.interval:10m}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        Report report = runOnce();
+        if (report.orphanFiles() > 0) {
+            System.out.println("Upload GC: " + report.orphanFiles() + " orphan dari " + report.scannedFiles()
+                    + " file, " + report.quarantinedBytes() + " byte dikarantina, "
+                    + report.reclaimedBytes() + " byte dibebaskan");
+        }
+    }
+
+    // Satu run inkremental; synchronized agar run manual tidak bertabrakan dengan jadwal
+    public synchronized Report runOnce() {
+        Run run = new Run();
+        Path root = fileStorageService.getUploadPath();
+        if (!Files.isDirectory(root)) {
+            return run.report(true);
+        }
+
+        try {
+            // File lama (nama cover_<id>...) dan file sementara ada langsung di root
+            if (cursor == null) {
+                scanDirectory(root, run);
+            }
+
+            for (String shard : listShards(root)) {
+                if (run.exhausted()) {
+                    return run.report(false);
+                }
+                if (cursor != null && shard.compareTo(cursor) <= 0) {
+                    continue;
+                }
+                scanDirectory(root.resolve(shard), run);
+                cursor = shard;
+            }
+        } catch (IOException e) {
+            errors.increment();
+            return run.report(false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return run.report(false);
+        }
+
+        // Siklus selesai: mulai lagi dari root pada run berikutnya
+        cursor = null;
+        purgeQuarantine(root, run);
+        return run.report(true);
+    }
+
+    // Shard ab/cd yang ada, terurut agar cursor bisa dilanjutkan
+    private static TreeSet<String> listShards(Path root) throws IOException {
+        TreeSet<String> shards = new TreeSet<>();
+        try (DirectoryStream<Path> first = Files.newDirectoryStream(root, UploadGarbageCollector::isShardDirectory)) {
+            for (Path level1 : first) {
+                try (DirectoryStream<Path> second = Files.newDirectoryStream(level1,
+                        UploadGarbageCollector::isShardDirectory)) {
+                    for (Path level2 : second) {
+                        shards.add(level1.getFileName() + "/" + level2.getFileName());
+                    }
+                }
+            }
+        }
+        return shards;
+    }
+
+    private static boolean isShardDirectory(Path path) {
+        return SHARD_NAME.matcher(path.getFileName().toString()).matches() && Files.isDirectory(path);
+    }
+
+    private void scanDirectory(Path dir, Run run) throws IOException, InterruptedException {
+        long minModified = System.currentTimeMillis() - minAge.toMillis();
+
+        // base name -> nama file original, dan original yang cukup tua untuk dicek ke DB
+        Map<String, String> originals = new HashMap<>();
+        List<String> candidates = new ArrayList<>();
+        Map<String, List<String>> variants = new HashMap<>();
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+            for (Path path : entries) {
+                String name = path.getFileName().toString();
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    continue;
+                }
+                if (!attributes.isRegularFile()) {
+                    continue;
+                }
+                run.pace();
+                boolean old = attributes.lastModifiedTime().toMillis() < minModified;
+
+                // Sisa file sementara dari upload/proses yang crash
+                if (name.startsWith(".") && name.endsWith(".tmp")) {
+                    if (old) {
+                        run.orphan();
+                        remove(path, attributes.size(), false, run);
+                    }
+                    continue;
+                }
+
+                Matcher variant = VARIANT_NAME.matcher(name);
+                if (variant.matches()) {
+                    variants.computeIfAbsent(variant.group(1), key -> new ArrayList<>()).add(name);
+                } else if (fileStorageService.isContentAddressed(name) || name.startsWith("cover_")) {
+                    originals.put(baseName(name), name);
+                    if (old) {
+                        candidates.add(name);
+                    }
+                }
+            }
+        }
+
+        Set<String> orphaned = new HashSet<>();
+        for (int i = 0; i < candidates.size(); i += batchSize) {
+            List<String> batch = candidates.subList(i, Math.min(candidates.size(), i + batchSize));
+            Set<String> referenced = new HashSet<>(foodRepository.findReferencedCovers(batch));
+            for (String name : batch) {
+                if (!referenced.contains(name)) {
+                    orphaned.add(name);
+                }
+            }
+        }
+
+        for (String name : orphaned) {
+            Path path = dir.resolve(name);
+            // Upload dengan isi sama bisa memakai file ini setelah query: dilewati selama
+            // masih pending, dan reference dicek ulang ke DB jika sudah commit
+            boolean removed = fileStorageService.runIfNotPending(name, () -> {
+                if (isOlderThan(path, minModified) && foodRepository.countByCover(name) == 0) {
+                    remove(path, sizeOf(path), quarantine, run);
+                }
+            });
+            if (!removed || Files.exists(path)) {
+                continue;
+            }
+            run.orphan();
+            List<String> owned = variants.remove(baseName(name));
+            if (owned != null) {
+                for (String variantName : owned) {
+                    Path variantPath = dir.resolve(variantName);
+                    remove(variantPath, sizeOf(variantPath), false, run);
+                }
+            }
+        }
+
+        // Variant tanpa original (original sudah dihapus) bisa dibuat ulang kapan saja, tidak perlu karantina
+        for (Map.Entry<String, List<String>> entry : variants.entrySet()) {
+            if (originals.containsKey(entry.getKey())) {
+                continue;
+            }
+            for (String variantName : entry.getValue()) {
+                Path variantPath = dir.resolve(variantName);
+                if (isOlderThan(variantPath, minModified)) {
+                    run.orphan();
+                    remove(variantPath, sizeOf(variantPath), false, run);
+                }
+            }
+        }
+    }
+
+    private void remove(Path path, long size, boolean toQuarantine, Run run) {
+        try {
+            if (toQuarantine) {
+                Path target = fileStorageService.getUploadPath().resolve(QUARANTINE_DIR);
+                Files.createDirectories(target);
+                target = target.resolve(path.getFileName().toString());
+                Files.move(path, target, StandardCopyOption.REPLACE_EXISTING);
+                // Retensi dihitung sejak masuk karantina
+                Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+                run.quarantined += size;
+                quarantinedBytes.add(size);
+            } else if (Files.deleteIfExists(path)) {
+                run.reclaimed += size;
+                reclaimedBytes.add(size);
+            }
+        } catch (IOException e) {
+            errors.increment();
+        }
+    }
+
+    private void purgeQuarantine(Path root, Run run) {
+        Path dir = root.resolve(QUARANTINE_DIR);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        long minModified = System.currentTimeMillis() - quarantineRetention.toMillis();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+            for (Path path : entries) {
+                if (Files.isRegularFile(path) && isOlderThan(path, minModified)) {
+                    remove(path, sizeOf(path), false, run);
+                }
+            }
+        } catch (IOException e) {
+            errors.increment();
+        }
+    }
+
+    private static String baseName(String name) {
+        int dot = name.indexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private static boolean isOlderThan(Path path, long minModified) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis() < minModified;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    public long getReclaimedBytes() {
+        return reclaimedBytes.sum();
+    }
+
+    public long getQuarantinedBytes() {
+        return quarantinedBytes.sum();
+    }
+
+    // Status satu run: jumlah file dan pembatas laju I/O
+    private final class Run {
+        private final long startNanos = System.nanoTime();
+        private long files;
+        private long orphanFiles;
+        private long reclaimed;
+        private long quarantined;
+
+        // Tidur jika laju melebihi max-files-per-second
+        void pace() throws InterruptedException {
+            files++;
+            scanned.increment();
+            long expectedNanos = files * TimeUnit.SECONDS.toNanos(1) / maxFilesPerSecond;
+            long aheadNanos = expectedNanos - (System.nanoTime() - startNanos);
+            if (aheadNanos > TimeUnit.MILLISECONDS.toNanos(1)) {
+                TimeUnit.NANOSECONDS.sleep(aheadNanos);
+            }
+        }
+
+        void orphan() {
+            orphanFiles++;
+            orphans.increment();
+        }
+
+        boolean exhausted() {
+            return files >= maxFilesPerRun;
+        }
+
+        Report report(boolean cycleComplete) {
+            return new Report(files, orphanFiles, reclaimed, quarantined, cycleComplete);
+        }
+    }
+}
@@ -5,21 +5,29 @@ import java.util.ArrayList;
 
 import org.delcom.app.entities.User;
 import org.delcom.app.repositories.UserRepository;
+import org.delcom.app.utils.TransactionUtil;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class UserService implements UserDetailsService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthPrincipalCache authPrincipalCache;
+    private final TransactionTemplate transactionTemplate;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+            AuthPrincipalCache authPrincipalCache, PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.authPrincipalCache = authPrincipalCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -35,7 +43,8 @@ public class UserService implements UserDetailsService {
         );
     }
 
-    @Transactional
+    // Tanpa @Transactional: hashing bisa antre sampai app.security.hashing.timeout dan tidak
+    // boleh memegang koneksi database selama itu; save() membuka transaksinya sendiri
     public User createUser(String name, String email, String password) {
         // Hashing password sebelum disimpan
         String hashedPassword = passwordEncoder.encode(password);
@@ -59,18 +68,22 @@ public class UserService implements UserDetailsService {
         }
         user.setName(name);
         user.setEmail(email);
+        TransactionUtil.afterCommit(() -> authPrincipalCache.evictUser(id));
         return userRepository.save(user);
     }
 
-    @Transactional
+    // Hashing di luar transaksi (lihat createUser); transaksi hanya membungkus baca dan simpan
     public User updatePassword(UUID id, String newPassword) {
-        User user = userRepository.findById(id).orElse(null);
-        if (user == null) {
-            return null;
-        }
         // Hashing password baru sebelum disimpan
         String hashedPassword = passwordEncoder.encode(newPassword);
-        user.setPassword(hashedPassword);
-        return userRepository.save(user);
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findById(id).orElse(null);
+            if (user == null) {
+                return null;
+            }
+            user.setPassword(hashedPassword);
+            TransactionUtil.afterCommit(() -> authPrincipalCache.evictUser(id));
+            return userRepository.save(user);
+        });
     }
 }
\ No newline at end of file
@@ -16,4 +16,12 @@ public class ConstUtil {
     public static final String TEMPLATE_PAGES_FOODS_LIST = "pages/foods/list";
     public static final String TEMPLATE_PAGES_FOODS_DETAIL = "pages/foods/detail";
     public static final String TEMPLATE_PAGES_FOODS_STATISTICS = "pages/foods/statistics";
+
+    // Fragments
+    public static final String TEMPLATE_FRAGMENTS_FOOD_CARDS = "pages/foods/list :: foodCards";
+
+    // Fragment yang dirender lewat FragmentCache (nama th:fragment di template halaman)
+    public static final String FRAGMENT_HOME_PANELS = "homePanels";
+    public static final String FRAGMENT_FOOD_GRID = "foodGrid";
+    public static final String FRAGMENT_STATISTICS_PANELS = "statisticsPanels";
 }
\ No newline at end of file
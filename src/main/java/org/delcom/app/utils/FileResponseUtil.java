@@ -0,0 +1,226 @@
+package org.delcom.app.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Menulis file statis ke response dengan conditional GET (ETag/Last-Modified)
+ * dan satu byte range. File besar diserahkan ke sendfile Tomcat (zero-copy) jika
+ * connector mendukungnya; selain itu disalin biasa lewat buffer heap ke output
+ * stream (tetap melewati buffer Tomcat, bukan zero-copy). Isi yang sudah di
+ * memori ditulis langsung dari ByteBuffer.
+ */
+public class FileResponseUtil {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // File kecil lebih murah ditulis langsung daripada diserahkan ke sendfile
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    private static final int COPY_BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * @param file         file yang dilayani (harus ada)
+     * @param contentType  content type dari metadata upload, bukan hasil probing
+     * @param cacheControl nilai header Cache-Control
+     */
+    public static void write(HttpServletRequest request, HttpServletResponse response, Path file,
+            String contentType, String cacheControl) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long[] range = prepare(request, response, attributes.size(), attributes.lastModifiedTime().toMillis(),
+                contentType, cacheControl);
+        if (range == null) {
+            return;
+        }
+        long start = range[0];
+        long end = range[1];
+        long count = end - start + 1;
+
+        if (count >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        // transferTo ke channel hasil Channels.newChannel juga menyalin lewat buffer, jadi
+        // disalin biasa: satu buffer heap (maks. 16KB) per panggilan, dipakai ulang per potongan.
+        // Tidak memakai ThreadLocal karena request berjalan di virtual thread
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(count, COPY_BUFFER_SIZE));
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), remaining));
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                buffer.flip();
+                response.getOutputStream().write(buffer);
+                position += read;
+                remaining -= read;
+            }
+        }
+    }
+
+    /**
+     * Sama seperti {@link #write(HttpServletRequest, HttpServletResponse, Path, String, String)}
+     * tetapi isi sudah ada di memori (buffer tidak diubah), jadi tanpa syscall filesystem.
+     */
+    public static void write(HttpServletRequest request, HttpServletResponse response, ByteBuffer content,
+            long lastModifiedMillis, String contentType, String cacheControl) throws IOException {
+        long[] range = prepare(request, response, content.remaining(), lastModifiedMillis, contentType,
+                cacheControl);
+        if (range == null) {
+            return;
+        }
+        ByteBuffer body = content.duplicate();
+        body.position(content.position() + (int) range[0]);
+        body.limit(content.position() + (int) range[1] + 1);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Header cache, conditional GET, dan parsing Range.
+     *
+     * @return {start, end} inklusif yang harus ditulis, atau null jika response sudah lengkap
+     *         (304, 416, HEAD, atau isi kosong)
+     */
+    private static long[] prepare(HttpServletRequest request, HttpServletResponse response, long length,
+            long lastModifiedMillis, String contentType, String cacheControl) {
+        long lastModified = lastModifiedMillis / 1000 * 1000;
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader("ETag", etag);
+        response.setDateHeader("Last-Modified", lastModified);
+        response.setHeader("Cache-Control", cacheControl);
+        response.setHeader("Accept-Ranges", "bytes");
+
+        if (notModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return null;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader("Range");
+        if (range != null && ifRangeMatches(request, etag, lastModified)) {
+            long[] parsed = parseRange(range, length);
+            if (parsed == null) {
+                response.setHeader("Content-Range", "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return null;
+            }
+            if (parsed.length == 2) {
+                start = parsed[0];
+                end = parsed[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(contentType);
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return null;
+        }
+        return new long[] { start, end };
+    }
+
+    private static boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            // If-None-Match lebih diutamakan daripada If-Modified-Since
+            return ifNoneMatch.trim().equals("*") || containsEtag(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = dateHeader(request, "If-Modified-Since");
+        return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+    }
+
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.trim().equals(etag);
+        }
+        long date = dateHeader(request, "If-Range");
+        return date >= 0 && lastModified <= date;
+    }
+
+    private static boolean containsEtag(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Parse satu byte range. Multi-range tidak didukung dan dilayani sebagai
+     * response penuh (diizinkan oleh RFC 9110).
+     *
+     * @return {start, end} inklusif; array kosong untuk response penuh; null jika tidak terpenuhi (416)
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // bytes=-N: N byte terakhir
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.delcom.app.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+/**
+ * Format image yang diterima sebagai cover, dideteksi dari magic bytes
+ * (bukan dari Content-Type atau ekstensi yang dikirim client).
+ */
+public enum ImageFormat {
+    JPEG("image/jpeg", ".jpg"),
+    PNG("image/png", ".png"),
+    GIF("image/gif", ".gif"),
+    WEBP("image/webp", ".webp");
+
+    // Jumlah byte awal yang cukup untuk mengenali semua format di atas
+    public static final int HEADER_LENGTH = 12;
+
+    private final String contentType;
+    private final String extension;
+
+    ImageFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Mendeteksi format dari byte awal file.
+     *
+     * @return format image, atau null jika bukan image yang didukung
+     */
+    public static ImageFormat detect(byte[] header, int length) {
+        if (length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return JPEG;
+        }
+        if (length >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G'
+                && header[4] == 0x0D && header[5] == 0x0A && header[6] == 0x1A && header[7] == 0x0A) {
+            return PNG;
+        }
+        if (length >= 6 && header[0] == 'G' && header[1] == 'I' && header[2] == 'F' && header[3] == '8'
+                && (header[4] == '7' || header[4] == '9') && header[5] == 'a') {
+            return GIF;
+        }
+        if (length >= 12 && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return WEBP;
+        }
+        return null;
+    }
+
+    // Format dari ekstensi nama file yang disimpan (ekstensi ditentukan saat upload)
+    public static ImageFormat fromFilename(String filename) {
+        String lower = filename.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) {
+            return JPEG;
+        }
+        for (ImageFormat format : values()) {
+            if (lower.endsWith(format.extension)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    // Membaca header dari stream; stream tidak ditutup
+    public static ImageFormat detect(InputStream input) throws IOException {
+        byte[] header = new byte[HEADER_LENGTH];
+        int length = input.readNBytes(header, 0, HEADER_LENGTH);
+        return detect(header, length);
+    }
+}
@@ -0,0 +1,158 @@
+package org.delcom.app.utils;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+// Decode, resize, dan encode JPEG untuk cover (dipakai pemrosesan variant dan resize on-demand)
+public class ImageUtil {
+    // Batas piksel sebelum decode untuk mencegah decompression bomb
+    public static final long MAX_PIXELS = 40_000_000L;
+    private static final float JPEG_QUALITY = 0.85f;
+
+    /**
+     * Decode image setelah validasi magic bytes dan batas piksel.
+     *
+     * @throws IOException jika bukan image yang didukung atau dimensi terlalu besar
+     */
+    public static BufferedImage decode(Path path) throws IOException {
+        try (InputStream header = Files.newInputStream(path)) {
+            if (ImageFormat.detect(header) == null) {
+                throw new IOException("Isi file bukan image yang didukung");
+            }
+        }
+
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            ImageReader reader = reader(input);
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_PIXELS) {
+                    throw new IOException("Dimensi image terlalu besar");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Dimensi dari header saja, tanpa decode piksel
+    public static Dimension readSize(Path path) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            ImageReader reader = reader(input);
+            try {
+                reader.setInput(input, true, true);
+                return new Dimension(reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static ImageReader reader(ImageInputStream input) throws IOException {
+        if (input == null) {
+            throw new IOException("File image tidak dapat dibaca");
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            throw new IOException("Format image tidak dapat diproses");
+        }
+        return readers.next();
+    }
+
+    // Resize proporsional ke lebar maksimum (tidak memperbesar)
+    public static BufferedImage resizeToWidth(BufferedImage source, int maxWidth) {
+        int width = source.getWidth();
+        int targetWidth = Math.min(maxWidth, width);
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * (targetWidth / (double) width)));
+        return scale(source, targetWidth, targetHeight);
+    }
+
+    // Resize ke ukuran tertentu dengan pengecilan bertahap (kualitas lebih baik daripada satu langkah)
+    public static BufferedImage scale(BufferedImage source, int targetWidth, int targetHeight) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+
+        BufferedImage current = toRgb(source);
+        while (width / 2 >= targetWidth && height / 2 >= targetHeight) {
+            width /= 2;
+            height /= 2;
+            current = draw(current, width, height);
+        }
+        if (width != targetWidth || height != targetHeight) {
+            current = draw(current, targetWidth, targetHeight);
+        }
+        return current;
+    }
+
+    // Potong bagian tengah image ke ukuran tertentu
+    public static BufferedImage cropCenter(BufferedImage source, int width, int height) {
+        if (source.getWidth() == width && source.getHeight() == height) {
+            return source;
+        }
+        int x = Math.max(0, (source.getWidth() - width) / 2);
+        int y = Math.max(0, (source.getHeight() - height) / 2);
+        return source.getSubimage(x, y, Math.min(width, source.getWidth()), Math.min(height, source.getHeight()));
+    }
+
+    // JPEG tidak punya alpha: latar transparan diganti putih
+    private static BufferedImage toRgb(BufferedImage source) {
+        if (source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+        return draw(source, source.getWidth(), source.getHeight());
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    // Encode ke file sementara lalu rename atomik agar pembaca tidak melihat file setengah jadi
+    public static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), ".variant", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -2,11 +2,19 @@ package org.delcom.app.utils;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 import java.util.UUID;
 
 import javax.crypto.SecretKey;
 
+import org.delcom.app.utils.JwtVerification.Failure;
+
 public class JwtUtil {
 
     // Ganti dengan secret key yang lebih aman dan simpan di tempat yang aman
@@ -14,10 +22,37 @@ public class JwtUtil {
     private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 2; // 2 jam
     private static final SecretKey key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
 
+    // Parser immutable dan thread-safe, dibuat sekali.
+    // Clock dipatok ke epoch sehingga jjwt tidak melempar ExpiredJwtException. Akibatnya
+    // setiap token dengan claim nbf dianggap belum berlaku oleh jjwt (PrematureJwtException,
+    // dilempar setelah signature valid), jadi exp dan nbf dihitung sendiri di verify().
+    private static final JwtParser parser = Jwts.parser()
+            .verifyWith(key)
+            .clock(() -> new Date(0L))
+            .build();
+
     public static SecretKey getKey() {
         return key;
     }
 
+    public static Duration getExpiration() {
+        return Duration.ofMillis(EXPIRATION_TIME);
+    }
+
+    /**
+     * Digest SHA-256 (32 byte) dari token, yang disimpan di database sebagai
+     * pengganti token mentah. Lebar tetap sehingga index unik tetap kecil.
+     *
+     * @param token JWT token
+     */
+    public static byte[] hashToken(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public static String generateToken(UUID userId) {
         return Jwts.builder()
                 .subject(userId.toString())
@@ -27,18 +62,51 @@ public class JwtUtil {
                 .compact();
     }
 
-    public static UUID extractUserId(String token) {
+    /**
+     * Verifikasi token dengan satu kali parse dan satu kali cek signature.
+     * Token valid maupun kedaluwarsa tidak melewati jalur exception.
+     *
+     * @param token JWT token
+     */
+    public static JwtVerification verify(String token) {
+        // JWS compact selalu terdiri dari tiga bagian
+        if (token == null || token.isEmpty() || countDots(token) != 2) {
+            return JwtVerification.failed(Failure.MALFORMED);
+        }
+
+        Claims claims;
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            return UUID.fromString(claims.getSubject());
-        } catch (Exception e) {
-            return null;
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (PrematureJwtException e) {
+            // Signature sudah valid; nbf dicek di bawah dengan waktu sekarang
+            claims = e.getClaims();
+        } catch (SecurityException e) {
+            return JwtVerification.failed(Failure.INVALID_SIGNATURE);
+        } catch (JwtException | IllegalArgumentException e) {
+            return JwtVerification.failed(Failure.MALFORMED);
         }
+
+        UUID userId = parseUuid(claims.getSubject());
+        if (userId == null) {
+            return JwtVerification.failed(Failure.INVALID_SUBJECT);
+        }
+
+        long now = System.currentTimeMillis();
+        // Pengganti cek nbf jjwt (tidak bermakna dengan clock epoch)
+        Date notBefore = claims.getNotBefore();
+        if (notBefore != null && notBefore.getTime() > now) {
+            return JwtVerification.failed(Failure.NOT_YET_VALID);
+        }
+
+        Date expiration = claims.getExpiration();
+        boolean expired = expiration != null && expiration.getTime() <= now;
+        return new JwtVerification(userId, expiration == null ? null : expiration.toInstant(), expired,
+                Failure.NONE);
+    }
+
+    public static UUID extractUserId(String token) {
+        JwtVerification verification = verify(token);
+        return verification.isValid() ? verification.userId() : null;
     }
 
     /**
@@ -48,19 +116,29 @@ public class JwtUtil {
      * @param ignoreExpired jika true maka token expired tetap dianggap valid
      */
     public static boolean validateToken(String token, boolean ignoreExpired) {
-        try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true; // valid
-        } catch (ExpiredJwtException e) {
-            if (ignoreExpired) {
-                return true; // abaikan expired
+        JwtVerification verification = verify(token);
+        return verification.isAuthentic() && (ignoreExpired || !verification.expired());
+    }
+
+    private static int countDots(String token) {
+        int dots = 0;
+        for (int i = 0; i < token.length(); i++) {
+            if (token.charAt(i) == '.') {
+                dots++;
             }
-            return false;
-        } catch (Exception e) {
-            return false; // token invalid
+        }
+        return dots;
+    }
+
+    // Parse UUID tanpa exception untuk format yang jelas salah
+    private static UUID parseUuid(String value) {
+        if (value == null || value.length() != 36) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package org.delcom.app.utils;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Hasil verifikasi JWT satu kali parse.
+ *
+ * @param userId    subject token sebagai UUID (null jika gagal)
+ * @param expiresAt waktu kedaluwarsa dari claim exp (null jika tidak ada)
+ * @param expired   true jika exp sudah lewat
+ * @param failure   alasan gagal, NONE jika signature dan format valid
+ */
+public record JwtVerification(UUID userId, Instant expiresAt, boolean expired, Failure failure) {
+
+    public enum Failure {
+        NONE,
+        MALFORMED,
+        INVALID_SIGNATURE,
+        INVALID_SUBJECT,
+        // Claim nbf belum tercapai
+        NOT_YET_VALID
+    }
+
+    private static final JwtVerification MALFORMED = new JwtVerification(null, null, false, Failure.MALFORMED);
+    private static final JwtVerification INVALID_SIGNATURE = new JwtVerification(null, null, false,
+            Failure.INVALID_SIGNATURE);
+    private static final JwtVerification INVALID_SUBJECT = new JwtVerification(null, null, false,
+            Failure.INVALID_SUBJECT);
+    private static final JwtVerification NOT_YET_VALID = new JwtVerification(null, null, false,
+            Failure.NOT_YET_VALID);
+
+    public static JwtVerification failed(Failure failure) {
+        return switch (failure) {
+            case MALFORMED -> MALFORMED;
+            case INVALID_SIGNATURE -> INVALID_SIGNATURE;
+            case INVALID_SUBJECT -> INVALID_SUBJECT;
+            case NOT_YET_VALID -> NOT_YET_VALID;
+            case NONE -> throw new IllegalArgumentException("NONE bukan alasan gagal");
+        };
+    }
+
+    // Signature valid dan subject berupa UUID, tanpa melihat kedaluwarsa
+    public boolean isAuthentic() {
+        return failure == Failure.NONE;
+    }
+
+    // Signature valid, subject valid, dan belum kedaluwarsa
+    public boolean isValid() {
+        return failure == Failure.NONE && !expired;
+    }
+}
@@ -0,0 +1,107 @@
+package org.delcom.app.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram latency bergaya HDR dengan bucket log-linear dalam mikrodetik.
+ * Setiap rentang pangkat dua dibagi menjadi 32 sub-bucket (presisi ~3%),
+ * dari 1 mikrodetik sampai ~9,5 jam. Pencatatan tanpa lock: satu increment atomik per
+ * nilai, sehingga aman dipanggil dari banyak thread request sekaligus.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // Eksponen tertinggi yang dilacak: 2^35 mikrodetik (~9,5 jam); nilai lebih besar dijepit
+    private static final int MAX_EXPONENT = 35;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public record Snapshot(long count, double meanMillis, double maxMillis,
+                           double p50Millis, double p90Millis, double p99Millis, double p999Millis,
+                           double sumSeconds) {
+    }
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        counts.incrementAndGet(indexOf(micros));
+        totalCount.increment();
+        totalMicros.add(micros);
+
+        long currentMax = maxMicros.get();
+        while (micros > currentMax && !maxMicros.compareAndSet(currentMax, micros)) {
+            currentMax = maxMicros.get();
+        }
+    }
+
+    static int indexOf(long micros) {
+        if (micros < SUB_BUCKET_COUNT) {
+            return (int) micros;
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(micros), MAX_EXPONENT);
+        int shift = exponent - SUB_BUCKET_BITS;
+        long mantissa = Math.min(micros >>> shift, 2L * SUB_BUCKET_COUNT - 1);
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) (mantissa - SUB_BUCKET_COUNT);
+    }
+
+    // Batas bawah (inklusif) bucket dalam mikrodetik
+    static long lowerBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long mantissa = SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT;
+        return mantissa << shift;
+    }
+
+    // Nilai tertinggi yang masih setara dengan bucket (seperti highestEquivalentValue HDR)
+    static long upperBound(int index) {
+        return index + 1 < BUCKET_COUNT ? lowerBound(index + 1) - 1 : lowerBound(index);
+    }
+
+    /**
+     * Mengambil snapshot persentil. Bucket dibaca satu per satu tanpa lock, jadi
+     * snapshot di bawah beban bisa sedikit tertinggal dari count total.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        long sum = totalMicros.sum();
+        long max = maxMicros.get();
+        if (count == 0) {
+            return new Snapshot(0, 0, 0, 0, 0, 0, 0, 0);
+        }
+
+        return new Snapshot(count,
+                sum / (double) Math.max(1, totalCount.sum()) / 1000.0,
+                max / 1000.0,
+                percentile(copy, count, 0.50, max),
+                percentile(copy, count, 0.90, max),
+                percentile(copy, count, 0.99, max),
+                percentile(copy, count, 0.999, max),
+                sum / 1_000_000.0);
+    }
+
+    private static double percentile(long[] copy, long count, double quantile, long max) {
+        long target = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < copy.length; i++) {
+            seen += copy[i];
+            if (seen >= target) {
+                return Math.min(upperBound(i), max) / 1000.0;
+            }
+        }
+        return max / 1000.0;
+    }
+}
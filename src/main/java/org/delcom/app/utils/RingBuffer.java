@@ -0,0 +1,75 @@
+package org.delcom.app.utils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ring buffer terbatas, lock-free, banyak producer dan satu consumer (MPSC).
+ * Producer mengklaim slot dengan CAS; jika penuh, offer() langsung gagal.
+ */
+public class RingBuffer<T> {
+
+    private final AtomicReferenceArray<T> slots;
+    private final int capacity;
+    private final int mask;
+
+    // Posisi klaim producer berikutnya
+    private final AtomicLong tail = new AtomicLong();
+    // Posisi baca consumer berikutnya (hanya diubah oleh consumer)
+    private final AtomicLong head = new AtomicLong();
+
+    public RingBuffer(int requestedCapacity) {
+        int size = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.capacity = size;
+        this.mask = size - 1;
+    }
+
+    public boolean offer(T item) {
+        while (true) {
+            long position = tail.get();
+            if (position - head.get() >= capacity) {
+                return false;
+            }
+            if (tail.compareAndSet(position, position + 1)) {
+                slots.setRelease((int) (position & mask), item);
+                return true;
+            }
+        }
+    }
+
+    // Hanya boleh dipanggil oleh satu thread consumer
+    public int drainTo(List<T> sink, int maxItems) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < maxItems) {
+            int index = (int) (position & mask);
+            T item = slots.getAcquire(index);
+            if (item == null) {
+                // Slot sudah diklaim tapi belum dipublikasikan, atau buffer kosong
+                break;
+            }
+            slots.setRelease(index, null);
+            sink.add(item);
+            position++;
+            drained++;
+        }
+        if (drained > 0) {
+            head.setRelease(position);
+        }
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
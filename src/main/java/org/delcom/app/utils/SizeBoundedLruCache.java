@@ -0,0 +1,119 @@
+package org.delcom.app.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Map concurrent yang dibatasi total ukuran (byte) nilainya. Saat batas
+ * terlampaui, entri yang paling lama tidak diakses dibuang sampai ukuran
+ * turun ke 90% batas. Get tidak mengunci; hanya pembuangan yang serial.
+ *
+ * @param <K> tipe key
+ * @param <V> tipe nilai; ukurannya dihitung oleh sizer dan tidak boleh berubah
+ */
+public class SizeBoundedLruCache<K, V> {
+    private static final class Node<V> {
+        private final V value;
+        private final long bytes;
+        private volatile long lastAccess;
+
+        private Node(V value, long bytes) {
+            this.value = value;
+            this.bytes = bytes;
+            this.lastAccess = System.nanoTime();
+        }
+    }
+
+    private final long maxBytes;
+    private final ToLongFunction<V> sizer;
+
+    private final ConcurrentHashMap<K, Node<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final LongAdder evictions = new LongAdder();
+
+    public SizeBoundedLruCache(long maxBytes, ToLongFunction<V> sizer) {
+        this.maxBytes = maxBytes;
+        this.sizer = sizer;
+    }
+
+    // Nilai untuk key, atau null; sekaligus menandai entri sebagai baru diakses
+    public V get(K key) {
+        Node<V> node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+        node.lastAccess = System.nanoTime();
+        return node.value;
+    }
+
+    // Nilai yang lebih besar dari batas total tidak disimpan
+    public void put(K key, V value) {
+        long bytes = sizer.applyAsLong(value);
+        if (bytes > maxBytes) {
+            return;
+        }
+        Node<V> previous = entries.put(key, new Node<>(value, bytes));
+        long delta = bytes - (previous != null ? previous.bytes : 0);
+        if (totalBytes.addAndGet(delta) > maxBytes) {
+            prune();
+        }
+    }
+
+    public void removeIf(Predicate<K> predicate) {
+        for (Map.Entry<K, Node<V>> next : entries.entrySet()) {
+            if (predicate.test(next.getKey())) {
+                remove(next.getKey(), next.getValue());
+            }
+        }
+    }
+
+    private synchronized void prune() {
+        long target = maxBytes - maxBytes / 10;
+        if (totalBytes.get() <= target) {
+            return;
+        }
+        // lastAccess disalin dulu: nilainya berubah selama sort jika dibaca langsung
+        record Candidate<K, V>(K key, Node<V> node, long lastAccess) {
+        }
+        List<Candidate<K, V>> candidates = new ArrayList<>(entries.size());
+        for (Map.Entry<K, Node<V>> next : entries.entrySet()) {
+            candidates.add(new Candidate<>(next.getKey(), next.getValue(), next.getValue().lastAccess));
+        }
+        candidates.sort(Comparator.comparingLong(Candidate::lastAccess));
+        for (Candidate<K, V> candidate : candidates) {
+            if (totalBytes.get() <= target) {
+                break;
+            }
+            if (remove(candidate.key(), candidate.node())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private boolean remove(K key, Node<V> node) {
+        if (entries.remove(key, node)) {
+            totalBytes.addAndGet(-node.bytes);
+            return true;
+        }
+        return false;
+    }
+
+    public long getBytes() {
+        return totalBytes.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,27 @@
+package org.delcom.app.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TransactionUtil {
+
+    /**
+     * Menjalankan aksi setelah transaksi aktif berhasil di-commit.
+     * Jika tidak ada transaksi aktif, aksi langsung dijalankan.
+     *
+     * @param action aksi yang dijalankan setelah commit
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -8,6 +8,8 @@ import org.delcom.app.dto.LoginForm;
 import org.delcom.app.dto.RegisterForm;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.PasswordHashingBusyException;
+import org.delcom.app.services.PasswordHashingService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.ConstUtil;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
@@ -17,7 +19,6 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -26,6 +27,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 
@@ -37,9 +39,12 @@ import org.springframework.validation.BindingResult;
 public class AuthView {
 
     private final UserService userService;
+    private final PasswordHashingService passwordHashingService;
 
-    public AuthView(UserService userService, AuthTokenService authTokenService) {
+    public AuthView(UserService userService, AuthTokenService authTokenService,
+            PasswordHashingService passwordHashingService) {
         this.userService = userService;
+        this.passwordHashingService = passwordHashingService;
     }
 
     // Final path: /auth/login. Tidak ada lagi konflik.
@@ -62,6 +67,7 @@ public class AuthView {
     public String postLogin(@Valid @ModelAttribute("loginForm") LoginForm loginForm,
             BindingResult bindingResult,
             HttpSession session,
+            HttpServletResponse response,
             Model model) {
 
         // Validasi form
@@ -75,8 +81,15 @@ public class AuthView {
             return ConstUtil.TEMPLATE_PAGES_AUTH_LOGIN;
         }
 
-        boolean isPasswordMatch = new BCryptPasswordEncoder()
-                .matches(loginForm.getPassword(), existingUser.getPassword());
+        // Verifikasi BCrypt dijalankan di thread pool hashing (admission control)
+        boolean isPasswordMatch;
+        try {
+            isPasswordMatch = passwordHashingService.matches(loginForm.getPassword(), existingUser.getPassword());
+        } catch (PasswordHashingBusyException e) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            model.addAttribute("error", e.getMessage());
+            return ConstUtil.TEMPLATE_PAGES_AUTH_LOGIN;
+        }
         if (!isPasswordMatch) {
             bindingResult.rejectValue("email", "error.loginForm", "Email atau kata sandi salah");
             return ConstUtil.TEMPLATE_PAGES_AUTH_LOGIN;
@@ -124,6 +137,7 @@ public class AuthView {
             BindingResult bindingResult,
             RedirectAttributes redirectAttributes,
             HttpSession session,
+            HttpServletResponse response,
             Model model) {
 
         // Validasi form
@@ -138,12 +152,18 @@ public class AuthView {
             return ConstUtil.TEMPLATE_PAGES_AUTH_REGISTER;
         }
 
-        String hashPassword = new BCryptPasswordEncoder().encode(registerForm.getPassword());
-
-        User createdUser = userService.createUser(
-                registerForm.getName(),
-                registerForm.getEmail(),
-                hashPassword);
+        // Password di-hash sekali oleh UserService di thread pool hashing
+        User createdUser;
+        try {
+            createdUser = userService.createUser(
+                    registerForm.getName(),
+                    registerForm.getEmail(),
+                    registerForm.getPassword());
+        } catch (PasswordHashingBusyException e) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            model.addAttribute("error", e.getMessage());
+            return ConstUtil.TEMPLATE_PAGES_AUTH_REGISTER;
+        }
 
         if (createdUser == null) {
             bindingResult.rejectValue("email", "error.registerForm", "Gagal membuat pengguna baru");
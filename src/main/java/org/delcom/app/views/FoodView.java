@@ -1,28 +1,35 @@
 package org.delcom.app.views;
 
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 import org.delcom.app.configs.AuthContext;
 import org.delcom.app.dto.CoverFoodForm;
+import org.delcom.app.dto.FoodCursor;
 import org.delcom.app.dto.FoodForm;
+import org.delcom.app.dto.FoodPage;
 import org.delcom.app.entities.Food;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.CoverMemoryCache;
+import org.delcom.app.services.CoverProcessingService;
+import org.delcom.app.services.CoverVariant;
 import org.delcom.app.services.FileStorageService;
 import org.delcom.app.services.FoodService;
+import org.delcom.app.services.FragmentCache;
+import org.delcom.app.services.InvalidCoverException;
 import org.delcom.app.utils.ConstUtil;
+import org.delcom.app.utils.FileResponseUtil;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 
@@ -31,7 +38,6 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.ResponseBody;
 
 @Controller
 @RequestMapping("/foods")
@@ -39,13 +45,21 @@ public class FoodView {
 
     private final FoodService foodService;
     private final FileStorageService fileStorageService;
+    private final CoverProcessingService coverProcessingService;
+    private final CoverMemoryCache coverMemoryCache;
+    private final FragmentCache fragmentCache;
     
     @Autowired
     protected AuthContext authContext;
 
-    public FoodView(FoodService foodService, FileStorageService fileStorageService) {
+    public FoodView(FoodService foodService, FileStorageService fileStorageService,
+            CoverProcessingService coverProcessingService, CoverMemoryCache coverMemoryCache,
+            FragmentCache fragmentCache) {
         this.foodService = foodService;
         this.fileStorageService = fileStorageService;
+        this.coverProcessingService = coverProcessingService;
+        this.coverMemoryCache = coverMemoryCache;
+        this.fragmentCache = fragmentCache;
     }
 
     // Halaman list foods
@@ -53,6 +67,7 @@ public class FoodView {
     public String getFoodList(@RequestParam(required = false) String search,
             @RequestParam(required = false) String category,
             HttpServletRequest request,
+            HttpServletResponse response,
             Model model) {
         
         // Validasi autentikasi menggunakan AuthContext
@@ -65,21 +80,61 @@ public class FoodView {
         // TAMBAHKAN: currentPath untuk navbar
         model.addAttribute("currentPath", request.getRequestURI());
 
-        // Ambil foods
-        var foods = foodService.getAllFoods(authUser.getId(), search);
-        if (category != null && !category.isBlank()) {
-            foods = foodService.getFoodsByCategory(authUser.getId(), category);
-        }
-        model.addAttribute("foods", foods);
         model.addAttribute("searchQuery", search);
         model.addAttribute("selectedCategory", category);
 
+        // Grid foods dirender sebagai fragment; hasil pencarian tidak di-cache (jarang diulang)
+        boolean bySearch = (category == null || category.isBlank()) && search != null && !search.isBlank();
+        String fragmentName = bySearch ? null : "foods?category=" + (category != null ? category : "");
+        model.addAttribute("foodGridHtml", fragmentCache.render(authUser.getId(), fragmentName,
+                ConstUtil.TEMPLATE_PAGES_FOODS_LIST, ConstUtil.FRAGMENT_FOOD_GRID, request, response, variables -> {
+                    // Ambil foods: halaman pertama saja, halaman berikutnya dimuat via /foods/cards
+                    if (bySearch) {
+                        variables.put("foods", foodService.getAllFoods(authUser.getId(), search));
+                    } else {
+                        FoodPage page = foodService.getFoodsPage(authUser.getId(), category, null, null);
+                        variables.put("foods", page.getFoods());
+                        variables.put("nextCursor", page.getNextCursor());
+                    }
+                    variables.put("searchQuery", search);
+                    variables.put("selectedCategory", category);
+                }));
+
         // Food Form untuk modal add
         model.addAttribute("foodForm", new FoodForm());
 
         return ConstUtil.TEMPLATE_PAGES_FOODS_LIST;
     }
 
+    // Fragment kartu food untuk halaman berikutnya (dipakai tombol "Muat lebih banyak")
+    @GetMapping("/cards")
+    public String getFoodCards(@RequestParam String after,
+            @RequestParam(required = false) String category,
+            HttpServletResponse response,
+            Model model) {
+
+        // Validasi autentikasi menggunakan AuthContext
+        if (!authContext.isAuthenticated()) {
+            return "redirect:/auth/login";
+        }
+        User authUser = authContext.getAuthUser();
+
+        FoodCursor cursor = FoodCursor.decode(after);
+        if (cursor == null) {
+            response.setStatus(400);
+            model.addAttribute("foods", List.of());
+            return ConstUtil.TEMPLATE_FRAGMENTS_FOOD_CARDS;
+        }
+
+        FoodPage page = foodService.getFoodsPage(authUser.getId(), category, cursor, null);
+        model.addAttribute("foods", page.getFoods());
+        if (page.hasMore()) {
+            response.setHeader("X-Next-Cursor", page.getNextCursor());
+        }
+
+        return ConstUtil.TEMPLATE_FRAGMENTS_FOOD_CARDS;
+    }
+
     @PostMapping("/add")
     public String postAddFood(@Valid @ModelAttribute("foodForm") FoodForm foodForm,
             @RequestParam(value = "referer", required = false, defaultValue = "/foods") String referer,
@@ -384,29 +439,33 @@ public class FoodView {
             return "redirect:/foods";
         }
 
-        // Validasi manual file type
-        if (!coverFoodForm.isValidImage()) {
-            redirectAttributes.addFlashAttribute("error", "Format file tidak didukung. Gunakan JPG, PNG, atau GIF");
-            redirectAttributes.addFlashAttribute("editCoverFoodModalOpen", true);
-            return "redirect:/foods/" + coverFoodForm.getId();
-        }
-
         // Validasi file size (max 5MB)
-        if (!coverFoodForm.isSizeValid(5 * 1024 * 1024)) {
+        if (!coverFoodForm.isSizeValid(FileStorageService.MAX_COVER_SIZE)) {
             redirectAttributes.addFlashAttribute("error", "Ukuran file terlalu besar. Maksimal 5MB");
             redirectAttributes.addFlashAttribute("editCoverFoodModalOpen", true);
             return "redirect:/foods/" + coverFoodForm.getId();
         }
 
         try {
-            // Simpan file
-            String fileName = fileStorageService.storeFile(coverFoodForm.getCoverFile(), coverFoodForm.getId());
+            // Simpan file; format divalidasi dari magic bytes (bukan Content-Type client)
+            String fileName = fileStorageService.storeFile(coverFoodForm.getCoverFile()).filename();
+
+            // Update food dengan nama file cover; setelah commit file tidak lagi pending
+            try {
+                foodService.updateCover(authUser.getId(), coverFoodForm.getId(), fileName);
+            } finally {
+                fileStorageService.releasePending(fileName);
+            }
 
-            // Update food dengan nama file cover
-            foodService.updateCover(authUser.getId(), coverFoodForm.getId(), fileName);
+            // Variant thumb/card/full dibuat di background
+            coverProcessingService.enqueue(fileName);
 
             redirectAttributes.addFlashAttribute("success", "Cover berhasil diupload");
             return "redirect:/foods/" + coverFoodForm.getId();
+        } catch (InvalidCoverException e) {
+            redirectAttributes.addFlashAttribute("error", "Format file tidak didukung. Gunakan JPG, PNG, GIF, atau WebP");
+            redirectAttributes.addFlashAttribute("editCoverFoodModalOpen", true);
+            return "redirect:/foods/" + coverFoodForm.getId();
         } catch (IOException e) {
             redirectAttributes.addFlashAttribute("error", "Gagal mengupload cover");
             redirectAttributes.addFlashAttribute("editCoverFoodModalOpen", true);
@@ -415,25 +474,29 @@ public class FoodView {
     }
 
     @GetMapping("/cover/{filename:.+}")
-    @ResponseBody
-    public Resource getCoverByFilename(@PathVariable String filename) {
-        try {
-            Path file = fileStorageService.loadFile(filename);
-            Resource resource = new UrlResource(file.toUri());
+    public void getCoverByFilename(@PathVariable String filename,
+            @RequestParam(required = false) String variant,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Cover kecil yang sering diminta (halaman list) dilayani dari memori
+        CoverVariant coverVariant = CoverVariant.fromKey(variant);
+        CoverMemoryCache.Entry cached = coverMemoryCache.get(filename, coverVariant);
+        if (cached != null) {
+            FileResponseUtil.write(request, response, cached.content(), cached.lastModified(),
+                    cached.contentType(), cached.cacheControl());
+            return;
+        }
 
-            if (resource.exists() || resource.isReadable()) {
-                return resource;
-            } else {
-                return null;
-            }
-        } catch (Exception e) {
-            return null;
+        FileStorageService.CoverFile cover = fileStorageService.resolveCover(filename, coverVariant);
+        if (cover == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
+        FileResponseUtil.write(request, response, cover.path(), cover.contentType(), cover.cacheControl());
     }
 
     // Halaman Statistics/Chart
     @GetMapping("/statistics")
-    public String getStatistics(HttpServletRequest request, Model model) {
+    public String getStatistics(HttpServletRequest request, HttpServletResponse response, Model model) {
         // Validasi autentikasi menggunakan AuthContext
         if (!authContext.isAuthenticated()) {
             return "redirect:/auth/login";
@@ -444,21 +507,28 @@ public class FoodView {
         // TAMBAHKAN: currentPath untuk navbar
         model.addAttribute("currentPath", request.getRequestURI());
 
-        // Ambil foods dulu
-        var foods = foodService.getAllFoods(authUser.getId(), "");
-        model.addAttribute("foods", foods);
-
-        // Ambil statistics dengan fallback
-        Map<String, Object> statistics;
+        // Panel statistik (kartu ringkasan, tabel, dan data chart) dari FragmentCache
+        String html;
         try {
-            statistics = foodService.getNutritionStatistics(authUser.getId());
-            if (statistics == null) {
-                statistics = createEmptyStatistics();
-            }
+            html = fragmentCache.render(authUser.getId(), "statistics",
+                    ConstUtil.TEMPLATE_PAGES_FOODS_STATISTICS, ConstUtil.FRAGMENT_STATISTICS_PANELS, request,
+                    response, variables -> {
+                        // Cukup jumlah food, tidak perlu memuat seluruh katalog
+                        variables.put("foodCount", foodService.countFoods(authUser.getId()));
+
+                        Map<String, Object> statistics = foodService.getNutritionStatistics(authUser.getId());
+                        variables.put("statistics", statistics != null ? statistics : createEmptyStatistics());
+                    });
         } catch (Exception e) {
-            statistics = createEmptyStatistics();
+            // Fallback statistik kosong dirender tanpa cache agar error sesaat tidak tersimpan
+            html = fragmentCache.render(authUser.getId(), null,
+                    ConstUtil.TEMPLATE_PAGES_FOODS_STATISTICS, ConstUtil.FRAGMENT_STATISTICS_PANELS, request,
+                    response, variables -> {
+                        variables.put("foodCount", 0);
+                        variables.put("statistics", createEmptyStatistics());
+                    });
         }
-        model.addAttribute("statistics", statistics);
+        model.addAttribute("statisticsPanelsHtml", html);
 
         return ConstUtil.TEMPLATE_PAGES_FOODS_STATISTICS;
     }
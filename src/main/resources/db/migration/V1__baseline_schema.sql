@@ -0,0 +1,53 @@
+-- Skema awal, sama dengan hasil ddl-auto=update sebelumnya.
+-- IF NOT EXISTS agar database lama (tanpa riwayat Flyway) bisa di-baseline.
+
+CREATE TABLE IF NOT EXISTS users (
+    id uuid NOT NULL,
+    name varchar(255) NOT NULL,
+    email varchar(255) NOT NULL,
+    password varchar(255) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    CONSTRAINT users_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS foods (
+    id uuid NOT NULL,
+    user_id uuid NOT NULL,
+    name varchar(255) NOT NULL,
+    calories double precision NOT NULL,
+    protein double precision NOT NULL,
+    carbohydrates double precision NOT NULL,
+    fat double precision NOT NULL,
+    fiber double precision NOT NULL,
+    serving_size varchar(255) NOT NULL,
+    category varchar(255) NOT NULL,
+    cover varchar(255),
+    description varchar(255),
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    CONSTRAINT foods_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS auth_tokens (
+    id uuid NOT NULL,
+    token text NOT NULL,
+    user_id uuid NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    CONSTRAINT auth_tokens_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS nutrition_rollups (
+    id uuid NOT NULL,
+    user_id uuid NOT NULL,
+    category varchar(255) NOT NULL,
+    food_count bigint NOT NULL,
+    total_calories double precision NOT NULL,
+    total_protein double precision NOT NULL,
+    total_carbohydrates double precision NOT NULL,
+    total_fat double precision NOT NULL,
+    total_fiber double precision NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    CONSTRAINT nutrition_rollups_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_nutrition_rollups_user_category UNIQUE (user_id, category)
+);
@@ -0,0 +1,20 @@
+-- Index mengikuti bentuk query di repository.
+
+-- FoodRepository: filter user_id, urut created_at DESC, id DESC (list, search, keyset pagination)
+CREATE INDEX IF NOT EXISTS idx_foods_user_created ON foods (user_id, created_at DESC, id DESC);
+
+-- FoodRepository: filter user_id + category dengan urutan yang sama
+CREATE INDEX IF NOT EXISTS idx_foods_user_category ON foods (user_id, category, created_at DESC, id DESC);
+
+-- FoodRepository.countByCover / findReferencedCovers (reference count file cover)
+CREATE INDEX IF NOT EXISTS idx_foods_cover ON foods (cover);
+
+-- UserRepository.findFirstByEmail; email juga harus unik.
+-- Migrasi gagal jika sudah ada email ganda: bersihkan dulu datanya.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_email ON users (email);
+
+-- AuthTokenRepository.findUserToken: token JWT panjang, hanya dicari dengan kesamaan (=)
+CREATE INDEX IF NOT EXISTS idx_auth_tokens_token ON auth_tokens USING hash (token);
+
+-- AuthTokenRepository.deleteByUserId
+CREATE INDEX IF NOT EXISTS idx_auth_tokens_user_id ON auth_tokens (user_id);
@@ -0,0 +1,30 @@
+-- Token disimpan sebagai SHA-256 (32 byte) dengan index unik, ditambah kolom
+-- expires_at untuk purge berkala (AuthTokenPurger).
+
+-- Token yang sudah lewat masa berlaku JWT (2 jam) tidak perlu dimigrasikan
+DELETE FROM auth_tokens WHERE created_at < now() - interval '2 hours';
+
+ALTER TABLE auth_tokens ADD COLUMN IF NOT EXISTS token_hash bytea;
+ALTER TABLE auth_tokens ADD COLUMN IF NOT EXISTS expires_at timestamp(6);
+
+UPDATE auth_tokens
+SET token_hash = sha256(convert_to(token, 'UTF8')),
+    expires_at = created_at + interval '2 hours';
+
+-- Token ganda (login berulang dengan token sama) disisakan satu
+DELETE FROM auth_tokens a
+USING auth_tokens b
+WHERE a.token_hash = b.token_hash
+  AND a.ctid < b.ctid;
+
+ALTER TABLE auth_tokens ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE auth_tokens ALTER COLUMN expires_at SET NOT NULL;
+
+DROP INDEX IF EXISTS idx_auth_tokens_token;
+ALTER TABLE auth_tokens DROP COLUMN token;
+
+-- AuthTokenRepository.findUserToken
+CREATE UNIQUE INDEX IF NOT EXISTS uk_auth_tokens_token_hash ON auth_tokens (token_hash);
+
+-- AuthTokenRepository.findExpiredIds (purge per batch)
+CREATE INDEX IF NOT EXISTS idx_auth_tokens_expires_at ON auth_tokens (expires_at);